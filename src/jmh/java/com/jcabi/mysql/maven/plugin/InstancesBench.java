@@ -0,0 +1,400 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2012-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.mysql.maven.plugin;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.commons.io.FileUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks of {@link Instances}, end to end and phase by phase.
+ *
+ * <p>Every operation takes seconds, so every invocation is measured
+ * separately. MySQL distribution is taken from {@code surefire.dist}
+ * system property. Run with {@code mvn -Pjmh verify}.
+ *
+ * @since 1.0
+ * @checkstyle DesignForExtensionCheck (500 lines)
+ * @checkstyle VisibilityModifierCheck (500 lines)
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 5)
+@Fork(1)
+@SuppressWarnings("PMD.TooManyMethods")
+public class InstancesBench {
+
+    /**
+     * Start a fresh instance and stop it.
+     * @param env Environment
+     * @throws IOException If fails
+     */
+    @Benchmark
+    public void startAndStop(final InstancesBench.Env env) throws IOException {
+        final int port = InstancesBench.port();
+        env.instances.start(
+            env.config(port), env.dist, env.temp(), true, null
+        );
+        env.instances.stop(port);
+    }
+
+    /**
+     * Initialize a data directory with {@code mysqld}.
+     * @param env Environment
+     * @throws IOException If fails
+     */
+    @Benchmark
+    public void initialize(final InstancesBench.Env env) throws IOException {
+        final File target = env.temp();
+        env.instances.initialize(env.dist, new File(target, "data"), target);
+    }
+
+    /**
+     * Spawn {@code mysqld} process, which exits right away.
+     * @param env Environment
+     * @return Exit code
+     * @throws Exception If fails
+     */
+    @Benchmark
+    public int spawn(final InstancesBench.Env env) throws Exception {
+        return Instances.builder(env.dist, "bin/mysqld", "--version")
+            .start().waitFor();
+    }
+
+    /**
+     * Wait until a spawned {@code mysqld} gets ready.
+     * @param spawned Spawned process
+     * @throws IOException If fails
+     */
+    @Benchmark
+    public void readiness(final InstancesBench.Spawned spawned)
+        throws IOException {
+        spawned.readiness.await(spawned.process, spawned.socket, spawned.port);
+    }
+
+    /**
+     * Start an instance on existing data, without initialization.
+     * @param copy Copy of initialized data
+     * @throws IOException If fails
+     */
+    @Benchmark
+    public void boot(final InstancesBench.Copy copy) throws IOException {
+        copy.env.instances.start(
+            copy.env.config(copy.port), copy.env.dist, copy.target, false, null
+        );
+    }
+
+    /**
+     * Create a database and a user in a running instance.
+     * @param running Running instance
+     * @return Output of the client
+     * @throws IOException If fails
+     */
+    @Benchmark
+    public String configure(final InstancesBench.Running running)
+        throws IOException {
+        return running.client.execute(
+            new Bootstrap(
+                new Config(
+                    running.port, "bench", "secret",
+                    String.format("db%d", running.counter.incrementAndGet()),
+                    Collections.emptyList()
+                )
+            ).sql()
+        );
+    }
+
+    /**
+     * Delete a data directory, as {@code erase} does.
+     * @param copy Copy of initialized data
+     * @throws IOException If fails
+     */
+    @Benchmark
+    public void delete(final InstancesBench.Copy copy) throws IOException {
+        FileUtils.deleteDirectory(copy.target);
+    }
+
+    /**
+     * Find a free port.
+     * @return Port
+     */
+    private static int port() {
+        final int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        } catch (final IOException ex) {
+            throw new IllegalStateException(ex);
+        }
+        return port;
+    }
+
+    /**
+     * Environment: distribution and initialized data.
+     * @since 1.0
+     */
+    @State(Scope.Benchmark)
+    public static class Env {
+        /**
+         * Instances.
+         */
+        final Instances instances = new Instances();
+
+        /**
+         * Distribution.
+         */
+        File dist;
+
+        /**
+         * Temporary directory.
+         */
+        File root;
+
+        /**
+         * Data directory of a started and stopped instance.
+         */
+        File golden;
+
+        /**
+         * Prepare.
+         * @throws IOException If fails
+         */
+        @Setup(Level.Trial)
+        public void setup() throws IOException {
+            this.dist = new File(System.getProperty("surefire.dist"));
+            this.root = Files.createTempDirectory("jmh").toFile();
+            final File target = new File(this.root, "golden");
+            final int port = InstancesBench.port();
+            this.instances.start(this.config(port), this.dist, target, true, null);
+            this.instances.stop(port);
+            this.golden = new File(target, "data");
+        }
+
+        /**
+         * Clean up.
+         */
+        @TearDown(Level.Trial)
+        public void teardown() {
+            FileUtils.deleteQuietly(this.root);
+        }
+
+        /**
+         * Configuration.
+         * @param port Port
+         * @return Configuration
+         */
+        Config config(final int port) {
+            return new Config(
+                port, "root", "root", "bench", Collections.emptyList()
+            );
+        }
+
+        /**
+         * New temporary directory.
+         * @return Directory
+         * @throws IOException If fails
+         */
+        File temp() throws IOException {
+            return Files.createTempDirectory(this.root.toPath(), "t").toFile();
+        }
+    }
+
+    /**
+     * Copy of initialized data, in a target directory.
+     * @since 1.0
+     */
+    @State(Scope.Thread)
+    public static class Copy {
+        /**
+         * Environment.
+         */
+        Env env;
+
+        /**
+         * Target directory.
+         */
+        File target;
+
+        /**
+         * Port to start at.
+         */
+        int port;
+
+        /**
+         * Prepare.
+         * @param environment Environment
+         * @throws IOException If fails
+         */
+        @Setup(Level.Invocation)
+        public void setup(final InstancesBench.Env environment)
+            throws IOException {
+            this.env = environment;
+            this.target = environment.temp();
+            this.port = InstancesBench.port();
+            FileUtils.copyDirectory(
+                environment.golden, new File(this.target, "data")
+            );
+        }
+
+        /**
+         * Clean up.
+         */
+        @TearDown(Level.Invocation)
+        public void teardown() {
+            this.env.instances.stop(this.port);
+            FileUtils.deleteQuietly(this.target);
+        }
+    }
+
+    /**
+     * Spawned {@code mysqld}, not ready yet.
+     * @since 1.0
+     */
+    @State(Scope.Thread)
+    public static class Spawned {
+        /**
+         * Copy of data.
+         */
+        Copy copy = new Copy();
+
+        /**
+         * Process.
+         */
+        Process process;
+
+        /**
+         * Readiness of it.
+         */
+        Readiness readiness;
+
+        /**
+         * Socket file.
+         */
+        File socket;
+
+        /**
+         * Port.
+         */
+        int port;
+
+        /**
+         * Prepare.
+         * @param environment Environment
+         * @throws IOException If fails
+         */
+        @Setup(Level.Invocation)
+        public void setup(final InstancesBench.Env environment)
+            throws IOException {
+            this.copy.setup(environment);
+            this.port = this.copy.port;
+            this.socket = new File(this.copy.target, "mysql.sock");
+            final File temp = new File(this.copy.target, "temp");
+            FileUtils.forceMkdir(temp);
+            this.process = Instances.builder(
+                environment.dist,
+                "bin/mysqld",
+                Instances.NO_DEFAULTS,
+                String.format("--user=%s", System.getProperty("user.name")),
+                "--console",
+                "--innodb_use_native_aio=0",
+                String.format("--basedir=%s", environment.dist),
+                String.format(
+                    "--lc-messages-dir=%s", new File(environment.dist, "share")
+                ),
+                String.format("--datadir=%s", new File(this.copy.target, "data")),
+                String.format("--tmpdir=%s", temp),
+                String.format("--socket=%s", this.socket),
+                String.format("--port=%d", this.port)
+            ).redirectErrorStream(true).start();
+            this.readiness = new Readiness();
+            new Pump().attach(
+                this.process.getInputStream(), this.port, "error", this.readiness
+            );
+        }
+
+        /**
+         * Clean up.
+         * @throws InterruptedException If interrupted
+         */
+        @TearDown(Level.Invocation)
+        public void teardown() throws InterruptedException {
+            this.process.destroy();
+            this.process.waitFor();
+            this.copy.teardown();
+        }
+    }
+
+    /**
+     * Running instance.
+     * @since 1.0
+     */
+    @State(Scope.Benchmark)
+    public static class Running {
+        /**
+         * Copy of data.
+         */
+        Copy copy = new Copy();
+
+        /**
+         * Client.
+         */
+        Client client;
+
+        /**
+         * Port.
+         */
+        int port;
+
+        /**
+         * Counter of databases.
+         */
+        final AtomicInteger counter = new AtomicInteger();
+
+        /**
+         * Prepare.
+         * @param environment Environment
+         * @throws IOException If fails
+         */
+        @Setup(Level.Trial)
+        public void setup(final InstancesBench.Env environment)
+            throws IOException {
+            this.copy.setup(environment);
+            this.port = this.copy.port;
+            environment.instances.start(
+                environment.config(this.port), environment.dist,
+                this.copy.target, false, null
+            );
+            this.client = new Client(
+                environment.dist, new File(this.copy.target, "mysql.sock")
+            );
+        }
+
+        /**
+         * Clean up.
+         */
+        @TearDown(Level.Trial)
+        public void teardown() {
+            this.copy.teardown();
+        }
+    }
+
+}
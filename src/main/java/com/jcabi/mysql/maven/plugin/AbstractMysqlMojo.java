@@ -6,9 +6,20 @@ package com.jcabi.mysql.maven.plugin;
 
 import com.jcabi.aspects.Cacheable;
 import com.jcabi.log.Logger;
+import com.jcabi.log.VerboseThreads;
 import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
 import org.apache.maven.plugin.AbstractMojo;
@@ -31,6 +42,25 @@ abstract class AbstractMysqlMojo extends AbstractMojo {
      */
     private static final String PROPERTY_REUSED = "jcabi.reused.database";
 
+    /**
+     * Property that will be exported by the plugin with the port of
+     * the instance, when it's leased from the daemon.
+     */
+    protected static final String PROPERTY_PORT = "jcabi.mysql.port";
+
+    /**
+     * Property that will be exported by {@code prepare} goal with
+     * the location of the unpacked distribution.
+     */
+    static final String PROPERTY_DIST = "jcabi.mysql.dist";
+
+    /**
+     * Starts running in the background, by absolute path of the data
+     * directory, see {@link #background(Instances)}.
+     */
+    private static final ConcurrentMap<String, Future<Void>> PENDING =
+        new ConcurrentHashMap<>(0);
+
     /**
      * The Maven project.
      */
@@ -50,16 +80,24 @@ abstract class AbstractMysqlMojo extends AbstractMojo {
     private transient boolean skip;
 
     /**
-     * Port to use.
+     * Port to use, or {@code auto} to choose a free one.
+     *
+     * <p>With {@code auto}, the server is started again at another free
+     * port if someone takes the chosen one first, and the actual port is
+     * exported as {@code jcabi.mysql.port} Maven property, which other
+     * goals use later.
      */
     @Parameter(
         defaultValue = "3306",
         required = false
     )
-    private transient int port;
+    private transient String port;
 
     /**
      * Location of MySQL distribution.
+     *
+     * <p>Ignored when {@code prepare} goal has unpacked the distribution
+     * earlier in the build.
      */
     @Parameter(
         defaultValue = "${project.build.directory}/mysql-dist",
@@ -96,6 +134,10 @@ abstract class AbstractMysqlMojo extends AbstractMojo {
 
     /**
      * Location of MySQL data.
+     *
+     * <p>Modules of a reactor, which start MySQL with the same
+     * configuration, distribution and data directory, share one server,
+     * each with its own {@code dbname}, and the last {@code stop} stops it.
      */
     @Parameter(
         defaultValue = "${project.build.directory}/mysql-data",
@@ -119,6 +161,265 @@ abstract class AbstractMysqlMojo extends AbstractMojo {
     )
     private transient boolean erase;
 
+    /**
+     * Location of the cache shared by all builds on this machine,
+     * for example {@code ${user.home}/.jcabi-mysql}.
+     *
+     * <p>Freshly initialized data directories are kept there, one per
+     * MySQL distribution, so that the slow initialization of MySQL
+     * happens only once. The cache is safe to share between concurrent
+     * builds. Delete the directory to drop the cache. When not set,
+     * every data directory is initialized from scratch, as before.
+     * @since 1.0
+     */
+    @Parameter(
+        property = "jcabi.mysql.cache",
+        required = false
+    )
+    private transient File cache;
+
+    /**
+     * Timeout of one readiness probe, in milliseconds.
+     *
+     * <p>While MySQL is starting, the plugin connects to it from time to
+     * time and waits for the initial handshake packet, at most that long.
+     * @since 1.0
+     */
+    @Parameter(
+        defaultValue = "500",
+        required = false
+    )
+    private transient long probe;
+
+    /**
+     * Control file of the daemon with warm instances.
+     *
+     * <p>The {@code daemon} goal writes its port there, other goals read
+     * it when {@code lease} is set.
+     * @since 1.0
+     */
+    @Parameter(
+        defaultValue = "${user.home}/.jcabi-mysql/daemon.port",
+        required = false
+    )
+    private transient File daemon;
+
+    /**
+     * Lease a warm instance from the daemon instead of starting a new one?
+     *
+     * <p>The daemon must be running, see the {@code daemon} goal. The port
+     * of the leased instance is exported as {@code jcabi.mysql.port}
+     * Maven property.
+     * @since 1.0
+     */
+    @Parameter(
+        defaultValue = "false",
+        property = "jcabi.mysql.lease",
+        required = false
+    )
+    private transient boolean lease;
+
+    /**
+     * SQL scripts to apply to a fresh database, in this order.
+     *
+     * <p>Scripts are applied only once: the data directory is stored
+     * in {@code templates} as a snapshot, keyed by the content of the
+     * scripts and the configuration. Next builds start from the snapshot
+     * directly, as long as the scripts and the configuration stay the same.
+     * @since 1.0
+     */
+    @Parameter(required = false)
+    private transient List<File> scripts;
+
+    /**
+     * Directory with snapshots of data directories, see {@code scripts}.
+     * @since 1.0
+     */
+    @Parameter(
+        defaultValue = "${user.home}/.jcabi-mysql/templates",
+        required = false
+    )
+    private transient File templates;
+
+    /**
+     * Many instances to start in parallel, instead of one.
+     *
+     * <p>When set, the {@code port}, {@code socket} and {@code lease}
+     * parameters are ignored, every instance keeps its data in
+     * a sub-directory of {@code data} named by its port, see
+     * {@link Instance}.
+     * @since 1.0
+     */
+    @Parameter(alias = "instances", required = false)
+    private transient List<Instance> definitions;
+
+    /**
+     * Directory of the checkpoint, made by {@code snapshot} goal and used
+     * by {@code restore} goal.
+     *
+     * <p>When many {@code instances} are started, each of them has
+     * a sub-directory named by its port.
+     * @since 1.0
+     */
+    @Parameter(
+        defaultValue = "${project.build.directory}/mysql-checkpoint",
+        required = false
+    )
+    private transient File checkpoint;
+
+    /**
+     * Chrome trace-event JSON file with timelines of started instances.
+     *
+     * <p>Open it in {@code chrome://tracing} or Perfetto to see how long
+     * every phase of the start took, like deleting of the old data,
+     * initialization, spawning and waiting for readiness, along with
+     * boot milestones of {@code mysqld} found in its log. The same
+     * durations are set as {@code jcabi.mysql.<port>.timing.<phase>}
+     * Maven properties, in milliseconds.
+     * @since 1.0
+     */
+    @Parameter(
+        defaultValue = "${project.build.directory}/mysql-trace.json",
+        required = false
+    )
+    private transient File trace;
+
+    /**
+     * Keep data in RAM and don't care about durability?
+     *
+     * <p>Data and temporary files go to {@code ram} directory, fsync is
+     * mostly turned off ({@code innodb_flush_log_at_trx_commit=0},
+     * no doublewrite buffer, no binary log) and everything is deleted when
+     * the instance stops. Good for throw-away test databases, since
+     * a crash loses the data.
+     * @since 1.0
+     */
+    @Parameter(
+        defaultValue = "false",
+        property = "jcabi.mysql.ephemeral",
+        required = false
+    )
+    private transient boolean ephemeral;
+
+    /**
+     * RAM-backed directory for {@code ephemeral} instances.
+     *
+     * <p>If it doesn't exist, like on macOS, the temporary directory of
+     * the JVM is used instead.
+     * @since 1.0
+     */
+    @Parameter(
+        defaultValue = "/dev/shm",
+        required = false
+    )
+    private transient File ram;
+
+    /**
+     * Performance profile: {@code fast-test}, {@code production-like}
+     * or {@code debug}.
+     *
+     * <p>The profile sizes the buffer pool, the redo log, I/O threads and
+     * the table cache by the memory and cores of the machine. Only
+     * {@code debug} turns on the general log. Options in {@code options}
+     * override the ones of the profile.
+     * @since 1.0
+     */
+    @Parameter(
+        defaultValue = "fast-test",
+        property = "jcabi.mysql.profile",
+        required = false
+    )
+    private transient String profile;
+
+    /**
+     * Write output of MySQL to {@code mysql.out} in the data directory,
+     * instead of the Maven log?
+     *
+     * <p>The output is redirected by the operating system, no Java code
+     * copies it.
+     * @since 1.0
+     */
+    @Parameter(
+        defaultValue = "false",
+        property = "jcabi.mysql.redirect",
+        required = false
+    )
+    private transient boolean redirect;
+
+    /**
+     * The least severe lines of MySQL output to log: {@code note},
+     * {@code warning} or {@code error}.
+     *
+     * <p>Lines are logged at most 100 per second, the rest is counted
+     * and reported.
+     * @since 1.0
+     */
+    @Parameter(
+        defaultValue = "note",
+        property = "jcabi.mysql.verbosity",
+        required = false
+    )
+    private transient String verbosity;
+
+    /**
+     * Interval of sampling of {@code SHOW GLOBAL STATUS}, in milliseconds,
+     * or zero to not sample.
+     *
+     * <p>Samples are taken over one connection while the instance runs.
+     * When it stops, deltas of counters, like {@code Questions} or
+     * {@code Innodb_buffer_pool_reads}, and values of gauges, like
+     * {@code Threads_running}, are saved as OpenMetrics text into
+     * {@code mysql-status.txt} next to {@code errors.log}, and a summary
+     * table is logged.
+     * @since 1.0
+     */
+    @Parameter(
+        defaultValue = "0",
+        property = "jcabi.mysql.sampling",
+        required = false
+    )
+    private transient long sampling;
+
+    /**
+     * Threshold of the slow query log, {@code long_query_time} in seconds,
+     * or zero to log all queries.
+     *
+     * <p>If set, slow queries go to {@code mysql-slow.log} next to
+     * {@code errors.log}. When the instance stops, the log is read as
+     * a stream, statements are normalized into fingerprints and top ten
+     * of them by total time, count, rows examined and lock time are
+     * saved into {@code mysql-slow.txt}. The log grows while the data
+     * directory is reused.
+     * @since 1.0
+     */
+    @Parameter(
+        property = "jcabi.mysql.slowlog",
+        required = false
+    )
+    private transient Double slowlog;
+
+    /**
+     * Turn networking off and listen only on the socket file?
+     *
+     * <p>Local round trips through a Unix socket are cheaper than through
+     * the TCP loopback. The port is only the name of the instance then,
+     * the user connects from {@code localhost}. The socket file and JDBC
+     * URL of the instance are exported as {@code jcabi.mysql.socket} and
+     * {@code jcabi.mysql.url} Maven properties, or
+     * {@code jcabi.mysql.<port>.socket} and {@code jcabi.mysql.<port>.url}
+     * when many {@code instances} are started. The URL goes through
+     * {@code AFUNIXDatabaseSocketFactoryCJ} of junixsocket, which must be
+     * on the test classpath, since MySQL Connector/J can't use Unix
+     * sockets on its own.
+     * @since 1.0
+     */
+    @Parameter(
+        defaultValue = "false",
+        property = "jcabi.mysql.socketOnly",
+        required = false
+    )
+    private transient boolean socketOnly;
+
     /**
      * Configuration options.
      */
@@ -143,42 +444,62 @@ abstract class AbstractMysqlMojo extends AbstractMojo {
             return;
         }
         this.run(AbstractMysqlMojo.instances());
+    }
+
+    /**
+     * Set Maven property of the project.
+     * @param name Name of the property
+     * @param value Its value
+     */
+    public void publish(final String name, final String value) {
         if (this.project == null) {
             Logger.warn(
                 this,
                 "MavenProject not initialized, unable to set property %s",
-                AbstractMysqlMojo.PROPERTY_REUSED
+                name
             );
         } else {
-            Logger.info(
-                this,
-                "set Maven property %s = %s ",
-                AbstractMysqlMojo.PROPERTY_REUSED,
-                AbstractMysqlMojo.instances().reusedExistingDatabase()
-            );
-            this.project.getProperties().setProperty(
-                AbstractMysqlMojo.PROPERTY_REUSED,
-                Boolean.toString(
-                    AbstractMysqlMojo.instances().reusedExistingDatabase()
-                )
-            );
+            Logger.info(this, "set Maven property %s = %s ", name, value);
+            this.project.getProperties().setProperty(name, value);
         }
     }
 
+    /**
+     * Get Maven property of the project.
+     * @param name Name of the property
+     * @return Its value or NULL if absent
+     */
+    public String published(final String name) {
+        final String value;
+        if (this.project == null) {
+            value = null;
+        } else {
+            value = this.project.getProperties().getProperty(name);
+        }
+        return value;
+    }
+
     /**
      * Get directory with MySQL dist.
      * @return Directory
      * @throws MojoFailureException If fails
      */
     public File distDir() throws MojoFailureException {
-        if (!this.dist.exists()) {
+        final String prepared = this.published(AbstractMysqlMojo.PROPERTY_DIST);
+        final File dir;
+        if (prepared == null) {
+            dir = this.dist;
+        } else {
+            dir = new File(prepared);
+        }
+        if (!dir.exists()) {
             throw new MojoFailureException(
                 String.format(
-                    "MySQL distribution directory doesn't exist: %s", this.dist
+                    "MySQL distribution directory doesn't exist: %s", dir
                 )
             );
         }
-        return this.dist;
+        return dir;
     }
 
     /**
@@ -197,6 +518,37 @@ abstract class AbstractMysqlMojo extends AbstractMojo {
         return this.socket;
     }
 
+    /**
+     * Get directory of the checkpoint of the instance.
+     * @param config Instance configuration
+     * @return Directory
+     */
+    public File checkpointDir(final Config config) {
+        final File dir;
+        if (this.multiple()) {
+            dir = new File(this.checkpoint, Integer.toString(config.port()));
+        } else {
+            dir = this.checkpoint;
+        }
+        return dir;
+    }
+
+    /**
+     * Get control file of the daemon.
+     * @return File
+     */
+    public File daemonFile() {
+        return this.daemon;
+    }
+
+    /**
+     * Shall we lease an instance from the daemon?
+     * @return TRUE if so
+     */
+    public boolean leased() {
+        return this.lease;
+    }
+
     /**
      * If true, always delete existing database files and create a new instance
      * from scratch. If false, try to reuse existing files.
@@ -214,10 +566,330 @@ abstract class AbstractMysqlMojo extends AbstractMojo {
         if (this.options == null) {
             this.options = Collections.emptyList();
         }
-        return new Config(
-            this.port, this.user, this.password, this.dbname,
+        Config config = new Config(
+            this.tcpPort(), this.user, this.password, this.dbname,
             Collections.unmodifiableList(this.options)
+        ).withCache(this.cache).withProbe(this.probe)
+            .withEphemeral(this.ramDir()).withSampling(this.sampling)
+            .withSocketOnly(this.socketOnly);
+        if (this.verbosity != null) {
+            config = config.withOutput(this.redirect, this.verbosity);
+        }
+        if (this.profile != null) {
+            config = config.withProfile(Profile.named(this.profile));
+        }
+        if (this.slowlog != null) {
+            config = config.withSlowLog(this.slowlog);
+        }
+        return config;
+    }
+
+    /**
+     * Start MySQL, from the snapshot of {@code scripts} if they are set.
+     * @param instances Instances to work with
+     * @throws IOException If fails
+     * @throws MojoFailureException If fails
+     */
+    protected void startup(final Instances instances)
+        throws IOException, MojoFailureException {
+        final boolean deldir = this.clear() && !this.templated();
+        boolean restored = false;
+        if (this.multiple()) {
+            final List<Config> configs = this.configs();
+            for (final Config config : configs) {
+                restored |= this.template(
+                    instances, config, Instances.target(this.dataDir(), config)
+                );
+            }
+            instances.start(configs, this.distDir(), this.dataDir(), deldir);
+            this.timings(instances, configs);
+            this.reused(instances, configs, restored);
+            for (final Config config : configs) {
+                this.endpoints(
+                    instances, config, String.format("%d.", config.port())
+                );
+            }
+        } else {
+            final Config config = this.config();
+            restored = this.template(instances, config, this.dataDir());
+            final Config started = instances.start(
+                config,
+                this.distDir(),
+                this.dataDir(),
+                deldir,
+                this.socketFile()
+            );
+            if (config.port() == Instances.AUTO) {
+                this.publish(
+                    AbstractMysqlMojo.PROPERTY_PORT,
+                    Integer.toString(started.port())
+                );
+            }
+            this.timings(instances, Collections.singletonList(started));
+            this.reused(
+                instances, Collections.singletonList(started), restored
+            );
+            this.endpoints(instances, started, "");
+        }
+    }
+
+    /**
+     * JDBC URL of the instance.
+     * @param config Instance configuration
+     * @param socket Its socket file
+     * @return URL for MySQL Connector/J
+     */
+    static String url(final Config config, final File socket) {
+        final String url;
+        if (config.socketOnly()) {
+            url = String.format(
+                "jdbc:mysql://localhost/%s?socketFactory=%s&junixsocket.file=%s",
+                config.dbname(),
+                "org.newsclub.net.mysql.AFUNIXDatabaseSocketFactoryCJ",
+                socket.getAbsolutePath()
+            );
+        } else {
+            url = String.format(
+                "jdbc:mysql://%s:%d/%s",
+                Instances.DEFAULT_HOST, config.port(), config.dbname()
+            );
+        }
+        return url;
+    }
+
+    /**
+     * Start MySQL in the background, like {@link #startup(Instances)},
+     * and return right away.
+     *
+     * <p>Wait for it with {@link #join()}, later in the build, which
+     * fails if the start fails.
+     * @param instances Instances to work with
+     * @throws MojoFailureException If it's already starting
+     */
+    protected void background(final Instances instances)
+        throws MojoFailureException {
+        final FutureTask<Void> task = new FutureTask<>(
+            () -> {
+                this.startup(instances);
+                return null;
+            }
         );
+        final String key = this.dataDir().getAbsolutePath();
+        if (AbstractMysqlMojo.PENDING.putIfAbsent(key, task) != null) {
+            throw new MojoFailureException(
+                String.format("MySQL in %s is already starting", key)
+            );
+        }
+        new VerboseThreads(this).newThread(task).start();
+        Logger.info(this, "MySQL in %s is starting in the background", key);
+    }
+
+    /**
+     * Wait for MySQL started by {@link #background(Instances)}, if any.
+     * @throws MojoFailureException If it failed to start
+     */
+    protected void join() throws MojoFailureException {
+        final String key = this.dataDir().getAbsolutePath();
+        final Future<Void> task = AbstractMysqlMojo.PENDING.remove(key);
+        if (task == null) {
+            Logger.info(this, "MySQL in %s is not starting in the background", key);
+        } else {
+            final long start = System.currentTimeMillis();
+            try {
+                task.get();
+            } catch (final InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(ex);
+            } catch (final ExecutionException ex) {
+                throw new MojoFailureException(
+                    String.format("failed to start MySQL in %s", key),
+                    ex.getCause()
+                );
+            }
+            Logger.info(
+                this, "MySQL in %s is ready, waited for %[ms]s",
+                key, System.currentTimeMillis() - start
+            );
+        }
+    }
+
+    /**
+     * Are there many instances to start?
+     * @return TRUE if {@code instances} parameter is set
+     */
+    protected boolean multiple() {
+        return this.definitions != null && !this.definitions.isEmpty();
+    }
+
+    /**
+     * Get configurations of all instances.
+     * @return Configurations, just one if {@code instances} is not set
+     * @throws MojoFailureException If any definition is broken
+     */
+    protected List<Config> configs() throws MojoFailureException {
+        final List<Config> configs = new ArrayList<>(1);
+        if (this.multiple()) {
+            for (final Instance instance : this.definitions) {
+                try {
+                    configs.add(instance.config(this.config()));
+                } catch (final IllegalArgumentException ex) {
+                    throw new MojoFailureException(ex.getMessage(), ex);
+                }
+            }
+        } else {
+            configs.add(this.config());
+        }
+        return configs;
+    }
+
+    /**
+     * Publish timings of started instances and save them into
+     * the {@code trace} file.
+     * @param instances Instances started
+     * @param configs Their configurations
+     * @throws IOException If fails
+     */
+    private void timings(final Instances instances,
+        final Collection<Config> configs) throws IOException {
+        final Map<Integer, Timeline> timelines = new LinkedHashMap<>(0);
+        for (final Config config : configs) {
+            final Timeline timeline = instances.timeline(config.port());
+            if (timeline != null) {
+                timelines.put(config.port(), timeline);
+                for (final Map.Entry<String, Long> entry
+                    : timeline.durations().entrySet()) {
+                    this.publish(
+                        String.format(
+                            "jcabi.mysql.%d.timing.%s",
+                            config.port(), entry.getKey()
+                        ),
+                        Long.toString(entry.getValue())
+                    );
+                }
+            }
+        }
+        if (this.trace != null && !timelines.isEmpty()) {
+            Timeline.save(this.trace, timelines);
+            Logger.info(this, "Timeline of MySQL saved into %s", this.trace);
+        }
+    }
+
+    /**
+     * Publish whether started instances reused their existing databases.
+     *
+     * <p>It's asked per instance, since other modules may start their
+     * instances at the same time. A data directory just populated from
+     * the template is not a reused one, even though it existed when the
+     * instance started.
+     * @param instances Instances started
+     * @param configs Their configurations
+     * @param restored Was any data directory populated from the template?
+     */
+    private void reused(final Instances instances,
+        final Collection<Config> configs, final boolean restored) {
+        boolean reused = !restored;
+        for (final Config config : configs) {
+            reused &= instances.reusedExistingDatabase(config.port());
+        }
+        this.publish(AbstractMysqlMojo.PROPERTY_REUSED, Boolean.toString(reused));
+    }
+
+    /**
+     * Publish socket file and JDBC URL of a started instance.
+     * @param instances Instances started
+     * @param config Its configuration
+     * @param prefix Prefix of property names, after {@code jcabi.mysql.}
+     */
+    private void endpoints(final Instances instances, final Config config,
+        final String prefix) {
+        final File file = instances.socket(config.port());
+        this.publish(
+            String.format("jcabi.mysql.%ssocket", prefix),
+            file.getAbsolutePath()
+        );
+        this.publish(
+            String.format("jcabi.mysql.%surl", prefix),
+            AbstractMysqlMojo.url(config, file)
+        );
+    }
+
+    /**
+     * Get TCP port.
+     * @return Port, the one started at when it's {@code auto} and
+     *  the instance is already started, or {@link Instances#AUTO}
+     */
+    private int tcpPort() {
+        final int num;
+        if ("auto".equals(this.port)) {
+            final String started = this.published(
+                AbstractMysqlMojo.PROPERTY_PORT
+            );
+            if (started == null) {
+                num = Instances.AUTO;
+            } else {
+                num = Integer.parseInt(started);
+            }
+        } else {
+            try {
+                num = Integer.parseInt(this.port);
+            } catch (final NumberFormatException ex) {
+                throw new IllegalArgumentException(
+                    String.format(
+                        "Port '%s' is neither a number nor 'auto'", this.port
+                    ),
+                    ex
+                );
+            }
+        }
+        return num;
+    }
+
+    /**
+     * Get RAM-backed directory for ephemeral data.
+     * @return Directory or NULL if not {@code ephemeral}
+     */
+    private File ramDir() {
+        final File dir;
+        if (!this.ephemeral) {
+            dir = null;
+        } else if (this.ram != null && this.ram.isDirectory()) {
+            dir = this.ram;
+        } else {
+            dir = new File(System.getProperty("java.io.tmpdir"));
+            Logger.warn(
+                this, "RAM directory %s is absent, %s is used instead",
+                this.ram, dir
+            );
+        }
+        return dir;
+    }
+
+    /**
+     * Are there scripts to make a template of?
+     * @return TRUE if {@code scripts} parameter is set
+     */
+    private boolean templated() {
+        return this.scripts != null && !this.scripts.isEmpty();
+    }
+
+    /**
+     * Populate data directory from the template, if scripts are set.
+     * @param instances Instances to work with
+     * @param config Instance configuration
+     * @param target Where the instance keeps its data
+     * @return TRUE if the data directory was populated from the template
+     * @throws IOException If fails
+     * @throws MojoFailureException If fails
+     */
+    private boolean template(final Instances instances, final Config config,
+        final File target) throws IOException, MojoFailureException {
+        boolean restored = false;
+        if (this.templated()) {
+            restored = new Template(this.templates, this.scripts).populate(
+                instances, config, this.distDir(), target, this.clear()
+            );
+        }
+        return restored;
     }
 
     /**
@@ -0,0 +1,33 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2012-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.mysql.maven.plugin;
+
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+
+/**
+ * Waits for MySQL started in the background by {@code start} goal with
+ * {@code async} option.
+ *
+ * <p>Fails if the start failed. Does nothing if nothing is starting.
+ * @since 1.0
+ */
+@ToString
+@EqualsAndHashCode(callSuper = false)
+@Mojo(
+    threadSafe = true, name = "await",
+    defaultPhase = LifecyclePhase.PRE_INTEGRATION_TEST
+)
+public final class AwaitMojo extends AbstractMysqlMojo {
+
+    @Override
+    public void run(final Instances instances) throws MojoFailureException {
+        this.join();
+    }
+
+}
@@ -0,0 +1,140 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2012-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.mysql.maven.plugin;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.apache.commons.io.FileUtils;
+
+/**
+ * Bootstrap SQL for a fresh MySQL server, to be used as
+ * {@code --init-file}.
+ *
+ * <p>MySQL executes the init file during its boot, before it starts
+ * accepting connections, so the root password, the database and the user
+ * are ready together with the server, without any extra client processes.
+ * The SQL uses {@code ALTER USER} and {@code CREATE USER IF NOT EXISTS},
+ * which are available since MySQL 5.7.6. The user connects from
+ * {@code 127.0.0.1}, or from {@code localhost} when the server listens
+ * only on its socket file.
+ *
+ * @since 1.0
+ */
+@ToString
+@EqualsAndHashCode(of = "config")
+final class Bootstrap {
+
+    /**
+     * Instance configuration.
+     */
+    private final transient Config config;
+
+    /**
+     * Ctor.
+     * @param cfg Instance configuration
+     */
+    Bootstrap(final Config cfg) {
+        this.config = cfg;
+    }
+
+    /**
+     * Save SQL to the file.
+     * @param file Where to save it
+     * @return The same file
+     * @throws IOException If fails
+     */
+    public File save(final File file) throws IOException {
+        FileUtils.writeStringToFile(file, this.sql(), StandardCharsets.UTF_8);
+        return file;
+    }
+
+    /**
+     * Make SQL.
+     * @return SQL statements, one per line
+     */
+    public String sql() {
+        final StringBuilder sql = new StringBuilder(0)
+            .append(
+                String.format(
+                    "ALTER USER '%s'@'localhost' IDENTIFIED BY '%s';\n",
+                    Instances.DEFAULT_USER,
+                    Bootstrap.escape(Instances.DEFAULT_PASSWORD)
+                )
+            )
+            .append(
+                String.format(
+                    "CREATE DATABASE IF NOT EXISTS %s;\n",
+                    Bootstrap.quote(this.config.dbname())
+                )
+            );
+        if (!Instances.DEFAULT_USER.equals(this.config.user())) {
+            sql.append(
+                String.format(
+                    "CREATE USER IF NOT EXISTS '%s'@'%s' IDENTIFIED BY '%s';\n",
+                    Bootstrap.escape(this.config.user()),
+                    Instances.host(this.config),
+                    Bootstrap.escape(this.config.password())
+                )
+            ).append(
+                String.format(
+                    "GRANT ALL ON %s.* TO '%s'@'%s';\n",
+                    Bootstrap.quote(this.config.dbname()),
+                    Bootstrap.escape(this.config.user()),
+                    Instances.host(this.config)
+                )
+            );
+        }
+        return sql.toString();
+    }
+
+    /**
+     * Make SQL for a distribution older than 5.7.6, which creates
+     * the database and the user on a running server, leaving the root
+     * password as it is.
+     * @return SQL statements, one per line
+     */
+    public String legacy() {
+        final StringBuilder sql = new StringBuilder(0).append(
+            String.format(
+                "CREATE DATABASE IF NOT EXISTS %s;\n",
+                Bootstrap.quote(this.config.dbname())
+            )
+        );
+        if (!Instances.DEFAULT_USER.equals(this.config.user())) {
+            sql.append(
+                String.format(
+                    "GRANT ALL ON %s.* TO '%s'@'%s' IDENTIFIED BY '%s';\n",
+                    Bootstrap.quote(this.config.dbname()),
+                    Bootstrap.escape(this.config.user()),
+                    Instances.host(this.config),
+                    Bootstrap.escape(this.config.password())
+                )
+            );
+        }
+        return sql.toString();
+    }
+
+    /**
+     * Escape string literal.
+     * @param text The text
+     * @return Escaped text, to be used inside single quotes
+     */
+    static String escape(final String text) {
+        return text.replace("\\", "\\\\").replace("'", "''");
+    }
+
+    /**
+     * Quote identifier, like a name of a database or a table.
+     * @param name The name
+     * @return Name in backticks, with backticks inside it doubled
+     */
+    static String quote(final String name) {
+        return String.format("`%s`", name.replace("`", "``"));
+    }
+
+}
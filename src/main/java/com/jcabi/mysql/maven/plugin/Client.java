@@ -0,0 +1,232 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2012-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.mysql.maven.plugin;
+
+import com.jcabi.log.VerboseProcess;
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.regex.Pattern;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * MySQL command line client of a running server.
+ *
+ * <p>Every call forks {@code bin/mysql} from the distribution, connects
+ * as root through the socket file and pipes SQL into it.
+ *
+ * <p>The class is thread-safe.
+ * @since 1.0
+ */
+@ToString
+@EqualsAndHashCode(of = { "dist", "socket" })
+final class Client {
+
+    /**
+     * Marker printed when SQL of a {@link Client.Session} is done.
+     */
+    private static final String MARK = "jcabi-mysql-held";
+
+    /**
+     * Warning of the client, like the one about the password in the
+     * command line, which it prints to stderr.
+     */
+    private static final Pattern WARNING = Pattern.compile(
+        "^\\S*mysql(\\.exe)?: \\[Warning\\] .*"
+    );
+
+    /**
+     * Directory with MySQL distribution.
+     */
+    private final transient File dist;
+
+    /**
+     * Socket file of the server.
+     */
+    private final transient File socket;
+
+    /**
+     * Ctor.
+     * @param dir Directory with MySQL distribution
+     * @param sock Socket file of the server
+     */
+    Client(final File dir, final File sock) {
+        this.dist = dir;
+        this.socket = sock;
+    }
+
+    /**
+     * Execute SQL and return what the client printed.
+     * @param sql SQL statements, separated by semicolons
+     * @return Output, tab-separated, without column names
+     * @throws IOException If fails
+     */
+    public String execute(final String sql) throws IOException {
+        final Process process = this.builder().start();
+        try (PrintWriter writer = new PrintWriter(
+            new OutputStreamWriter(
+                process.getOutputStream(),
+                StandardCharsets.UTF_8
+            )
+        )) {
+            writer.println(sql);
+        }
+        return new VerboseProcess(process).stdout();
+    }
+
+    /**
+     * Execute SQL, run the action while the session is still open, and
+     * close the session.
+     *
+     * <p>This is how locks, like the ones of {@code FLUSH TABLES ... FOR
+     * EXPORT}, are held while files are copied.
+     * @param sql SQL statements, separated by semicolons
+     * @param action What to do while the session is open
+     * @throws IOException If fails
+     */
+    public void hold(final String sql, final Client.Action action)
+        throws IOException {
+        try (Client.Session session = this.open()) {
+            session.query(sql);
+            action.run();
+            session.query("UNLOCK TABLES;");
+        }
+    }
+
+    /**
+     * Open a session, which runs many queries over one connection.
+     * @return Session, which must be closed
+     * @throws IOException If fails
+     */
+    public Client.Session open() throws IOException {
+        return new Client.Session(
+            this.builder("--unbuffered").redirectErrorStream(true).start()
+        );
+    }
+
+    /**
+     * Make builder of the client process.
+     * @param extra Extra arguments
+     * @return Builder
+     */
+    private ProcessBuilder builder(final String... extra) {
+        final ProcessBuilder builder = Instances.builder(
+            this.dist,
+            "bin/mysql",
+            Instances.NO_DEFAULTS,
+            "--batch",
+            "--skip-column-names",
+            String.format("--user=%s", Instances.DEFAULT_USER),
+            String.format("--password=%s", Instances.DEFAULT_PASSWORD),
+            String.format("--socket=%s", this.socket)
+        );
+        builder.command().addAll(Arrays.asList(extra));
+        return builder;
+    }
+
+    /**
+     * Action done while the session is open.
+     * @since 1.0
+     */
+    interface Action {
+        /**
+         * Do it.
+         * @throws IOException If fails
+         */
+        void run() throws IOException;
+    }
+
+    /**
+     * Session of the client, which keeps one connection open.
+     *
+     * <p>SQL goes to the client process and its output is read up to
+     * a marker, which is selected after every query. Errors of the client
+     * are read from the same stream, to report why a query failed, while
+     * its warnings are skipped. The session is closed when the client
+     * process exits.
+     * @since 1.0
+     */
+    static final class Session implements Closeable {
+        /**
+         * The client process.
+         */
+        private final transient Process process;
+
+        /**
+         * Its input.
+         */
+        private final transient PrintWriter writer;
+
+        /**
+         * Its output.
+         */
+        private final transient BufferedReader reader;
+
+        /**
+         * Ctor.
+         * @param proc The client process
+         */
+        Session(final Process proc) {
+            this.process = proc;
+            this.writer = new PrintWriter(
+                new OutputStreamWriter(
+                    proc.getOutputStream(), StandardCharsets.UTF_8
+                )
+            );
+            this.reader = new BufferedReader(
+                new InputStreamReader(
+                    proc.getInputStream(), StandardCharsets.UTF_8
+                )
+            );
+        }
+
+        /**
+         * Execute SQL and return what the client printed.
+         * @param sql SQL statements, separated by semicolons
+         * @return Output, tab-separated, without column names
+         * @throws IOException If fails, and the session is over then
+         */
+        public String query(final String sql) throws IOException {
+            this.writer.println(sql);
+            this.writer.println(String.format("SELECT '%s';", Client.MARK));
+            this.writer.flush();
+            final StringBuilder output = new StringBuilder(0);
+            String line = this.reader.readLine();
+            while (!Client.MARK.equals(line)) {
+                if (line == null) {
+                    throw new IOException(
+                        String.format("Failed to execute '%s': %s", sql, output)
+                    );
+                }
+                if (!Client.WARNING.matcher(line).matches()) {
+                    output.append(line).append('\n');
+                }
+                line = this.reader.readLine();
+            }
+            return output.toString();
+        }
+
+        @Override
+        public void close() throws IOException {
+            this.writer.close();
+            try {
+                this.process.waitFor();
+            } catch (final InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(ex);
+            } finally {
+                this.reader.close();
+            }
+        }
+    }
+
+}
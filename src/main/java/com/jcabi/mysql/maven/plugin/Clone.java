@@ -0,0 +1,272 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2012-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.mysql.maven.plugin;
+
+import com.jcabi.log.Logger;
+import com.jcabi.log.VerboseProcess;
+import com.jcabi.log.VerboseThreads;
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.logging.Level;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.apache.commons.io.FileUtils;
+
+/**
+ * Strategy of cloning a data directory.
+ *
+ * <p>Data directories are cloned from templates, for example from the
+ * golden copy in {@link DataCache}. A plain copy of multi-gigabyte InnoDB
+ * files is I/O bound, so there are a few implementations here, from the
+ * fastest to the most portable. Use {@link Clone.Fastest} to pick the
+ * fastest one that works for the given pair of directories.
+ *
+ * @since 1.0
+ */
+interface Clone {
+
+    /**
+     * Clone the content of the source directory into the target one.
+     * @param source Source directory
+     * @param target Target directory (absent or empty)
+     * @return TRUE if cloned, FALSE if the strategy is not applicable
+     * @throws IOException If fails
+     */
+    boolean copy(Path source, Path target) throws IOException;
+
+    /**
+     * Copy-on-write clone with {@code cp --reflink=always}.
+     *
+     * <p>Works only on filesystems that support reflinks, for example
+     * Btrfs, XFS, or ZFS, and only with GNU coreutils. The copy is made
+     * in constant time, data blocks are shared until modified.
+     *
+     * @since 1.0
+     */
+    @ToString
+    @EqualsAndHashCode
+    final class Reflink implements Clone {
+        @Override
+        public boolean copy(final Path source, final Path target)
+            throws IOException {
+            Files.createDirectories(target);
+            boolean done;
+            try {
+                done = new VerboseProcess(
+                    new ProcessBuilder(
+                        "cp", "-R", "--reflink=always",
+                        String.format("%s%s.", source, File.separator),
+                        target.toString()
+                    ).redirectErrorStream(true).start(),
+                    Level.FINE, Level.FINE
+                ).waitFor().code() == 0;
+            } catch (final IOException ex) {
+                Logger.debug(this, "cp is not available: %s", ex);
+                done = false;
+            } catch (final InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(ex);
+            }
+            if (!done) {
+                FileUtils.cleanDirectory(target.toFile());
+            }
+            return done;
+        }
+    }
+
+    /**
+     * Multi-threaded copy with {@link FileChannel#transferTo}.
+     *
+     * <p>Works everywhere. Big files are copied in parallel, and the
+     * kernel may avoid copying bytes through user space.
+     *
+     * @since 1.0
+     */
+    @ToString
+    @EqualsAndHashCode
+    final class Parallel implements Clone {
+        /**
+         * How many threads to use.
+         */
+        private final transient int threads;
+
+        /**
+         * Ctor.
+         */
+        Parallel() {
+            this(Runtime.getRuntime().availableProcessors());
+        }
+
+        /**
+         * Ctor.
+         * @param total How many threads to use
+         */
+        Parallel(final int total) {
+            this.threads = total;
+        }
+
+        @Override
+        public boolean copy(final Path source, final Path target)
+            throws IOException {
+            for (final Path dir : Clone.dirs(source)) {
+                Files.createDirectories(target.resolve(source.relativize(dir)));
+            }
+            final List<Path> files = Clone.files(source);
+            final ExecutorService service = Executors.newFixedThreadPool(
+                Math.max(1, Math.min(this.threads, files.size())),
+                new VerboseThreads(Clone.class)
+            );
+            try {
+                final Collection<Future<Void>> futures = new ArrayList<>(
+                    files.size()
+                );
+                for (final Path file : files) {
+                    final Path dest = target.resolve(source.relativize(file));
+                    futures.add(
+                        service.submit(
+                            () -> {
+                                Clone.Parallel.transfer(file, dest);
+                                return null;
+                            }
+                        )
+                    );
+                }
+                for (final Future<Void> future : futures) {
+                    future.get();
+                }
+            } catch (final InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(ex);
+            } catch (final ExecutionException ex) {
+                throw new IOException(ex.getCause());
+            } finally {
+                service.shutdownNow();
+            }
+            return true;
+        }
+
+        /**
+         * Copy one file.
+         * @param file Source file
+         * @param dest Target file
+         * @throws IOException If fails
+         */
+        private static void transfer(final Path file, final Path dest)
+            throws IOException {
+            try (
+                FileChannel input = FileChannel.open(
+                    file, StandardOpenOption.READ
+                );
+                FileChannel output = FileChannel.open(
+                    dest, StandardOpenOption.CREATE_NEW,
+                    StandardOpenOption.WRITE
+                )
+            ) {
+                final long size = input.size();
+                long pos = 0L;
+                while (pos < size) {
+                    pos += input.transferTo(pos, size - pos, output);
+                }
+            }
+            Files.setLastModifiedTime(dest, Files.getLastModifiedTime(file));
+        }
+    }
+
+    /**
+     * The fastest strategy available.
+     *
+     * <p>Tries {@link Clone.Reflink} first and then {@link Clone.Parallel},
+     * which always works. Each strategy either clones everything or leaves
+     * the target empty, so the next one can start from scratch. The time
+     * spent is logged, together with the name of the strategy that did
+     * the job.
+     *
+     * @since 1.0
+     */
+    @ToString
+    @EqualsAndHashCode
+    final class Fastest implements Clone {
+        /**
+         * Strategies, in order of preference.
+         */
+        private final transient Iterable<Clone> all;
+
+        /**
+         * Ctor.
+         */
+        Fastest() {
+            this(new Clone.Reflink(), new Clone.Parallel());
+        }
+
+        /**
+         * Ctor.
+         * @param clones Strategies, in order of preference
+         */
+        Fastest(final Clone... clones) {
+            this.all = Stream.of(clones).collect(Collectors.toList());
+        }
+
+        @Override
+        public boolean copy(final Path source, final Path target)
+            throws IOException {
+            final long start = System.currentTimeMillis();
+            boolean done = false;
+            for (final Clone clone : this.all) {
+                if (clone.copy(source, target)) {
+                    Logger.info(
+                        this, "%s cloned into %s by %s in %[ms]s",
+                        source, target, clone.getClass().getSimpleName(),
+                        System.currentTimeMillis() - start
+                    );
+                    done = true;
+                    break;
+                }
+                Logger.debug(
+                    this, "%s can't clone %s, trying the next one",
+                    clone.getClass().getSimpleName(), source
+                );
+            }
+            return done;
+        }
+    }
+
+    /**
+     * All regular files inside the directory, recursively.
+     * @param dir The directory
+     * @return Files
+     * @throws IOException If fails
+     */
+    static List<Path> files(final Path dir) throws IOException {
+        try (Stream<Path> all = Files.walk(dir)) {
+            return all.filter(Files::isRegularFile).collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * All directories inside the directory, recursively, including itself.
+     * @param dir The directory
+     * @return Directories, parents before children
+     * @throws IOException If fails
+     */
+    static List<Path> dirs(final Path dir) throws IOException {
+        try (Stream<Path> all = Files.walk(dir)) {
+            return all.filter(Files::isDirectory).collect(Collectors.toList());
+        }
+    }
+
+}
@@ -0,0 +1,85 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2012-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.mysql.maven.plugin;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+
+/**
+ * Copies the seeded database of a running MySQL into sibling databases.
+ *
+ * <p>Run it after {@code start} (and after the seeding), in the same
+ * build. Copies are named {@code <dbname>_1}, {@code <dbname>_2}, and
+ * so on, and are made of tablespace files, not by replaying SQL. Their
+ * names are exported as Maven properties: {@code jcabi.mysql.clones}
+ * with all of them, comma-separated, and {@code jcabi.mysql.clone.N} with
+ * each of them, so that every failsafe fork or test class can take its
+ * own one. When many {@code instances} are started, the properties are
+ * {@code jcabi.mysql.PORT.clones} and {@code jcabi.mysql.PORT.clone.N}.
+ *
+ * @since 1.0
+ */
+@ToString
+@EqualsAndHashCode(callSuper = false)
+@Mojo(
+    threadSafe = true, name = "clone",
+    defaultPhase = LifecyclePhase.PRE_INTEGRATION_TEST
+)
+public final class CloneMojo extends AbstractMysqlMojo {
+
+    /**
+     * How many copies to make.
+     */
+    @Parameter(
+        defaultValue = "1",
+        property = "jcabi.mysql.copies",
+        required = false
+    )
+    private transient int copies;
+
+    @Override
+    public void run(final Instances instances) throws MojoFailureException {
+        for (final Config config : this.configs()) {
+            final List<String> names = new ArrayList<>(this.copies);
+            for (int idx = 1; idx <= this.copies; ++idx) {
+                names.add(String.format("%s_%d", config.dbname(), idx));
+            }
+            try {
+                instances.clone(config.port(), names);
+            } catch (final IOException ex) {
+                throw new MojoFailureException(
+                    String.format(
+                        "failed to clone '%s' database at %d port",
+                        config.dbname(), config.port()
+                    ),
+                    ex
+                );
+            }
+            final String prefix;
+            if (this.multiple()) {
+                prefix = String.format("jcabi.mysql.%d.", config.port());
+            } else {
+                prefix = "jcabi.mysql.";
+            }
+            this.publish(
+                String.format("%sclones", prefix), String.join(",", names)
+            );
+            for (int idx = 0; idx < names.size(); ++idx) {
+                this.publish(
+                    String.format("%sclone.%d", prefix, idx + 1),
+                    names.get(idx)
+                );
+            }
+        }
+    }
+
+}
@@ -4,6 +4,7 @@
  */
 package com.jcabi.mysql.maven.plugin;
 
+import java.io.File;
 import java.util.Collections;
 import java.util.List;
 import javax.validation.constraints.NotNull;
@@ -19,7 +20,9 @@ import lombok.ToString;
  */
 @ToString
 @EqualsAndHashCode(
-    of = { "tcpport", "dbuser", "dbpassword", "name", "dbopts" }
+    of = { "tcpport", "dbuser", "dbpassword", "name", "dbopts", "cachedir",
+        "probetime", "ramdir", "prof",
+        "outfile", "level", "interval", "slowtime", "local" }
 )
 public final class Config {
 
@@ -48,6 +51,54 @@ public final class Config {
      */
     private final transient List<String> dbopts;
 
+    /**
+     * Directory with cached data directories (NULL if no cache).
+     */
+    private final transient File cachedir;
+
+    /**
+     * Timeout of one readiness probe, in milliseconds.
+     */
+    private final transient long probetime;
+
+    /**
+     * RAM-backed directory for ephemeral data (NULL if not ephemeral).
+     */
+    private final transient File ramdir;
+
+    /**
+     * Performance profile.
+     */
+    private final transient Profile prof;
+
+    /**
+     * Shall output of the server go to a file, instead of the log?
+     */
+    private final transient boolean outfile;
+
+    /**
+     * The least severe lines of server output to log.
+     */
+    private final transient String level;
+
+    /**
+     * Interval of sampling of server status, in milliseconds (zero if
+     * not sampled).
+     */
+    private final transient long interval;
+
+    /**
+     * Threshold of slow query log, {@code long_query_time} in seconds
+     * (negative if not logged).
+     */
+    private final transient double slowtime;
+
+    /**
+     * Shall the server listen only on its socket file, with networking
+     * turned off?
+     */
+    private final transient boolean local;
+
     /**
      * Creates new configuration.
      * @param port TCP port
@@ -63,12 +114,231 @@ public final class Config {
         @NotNull final String password,
         @NotNull final String dbn,
         @NotNull final List<String> opts
+    ) {
+        this(port, usr, password, dbn, opts, null, SocketHelper.TIMEOUT, null,
+            Profile.FAST_TEST, false, "note", 0L, -1.0d, false
+        );
+    }
+
+    /**
+     * Creates new configuration.
+     * @param port TCP port
+     * @param usr Db user name
+     * @param password Db password
+     * @param dbn Db name
+     * @param opts Configuration options
+     * @param cache Directory with cached data directories (may be null)
+     * @param probe Timeout of one readiness probe, in milliseconds
+     * @param ram RAM-backed directory for ephemeral data (may be null)
+     * @param profile Performance profile
+     * @param redirect Shall output of the server go to a file?
+     * @param verbosity The least severe lines of server output to log
+     * @param sampling Interval of sampling of server status, in
+     *  milliseconds (zero if not sampled)
+     * @param slow Threshold of slow query log, in seconds (negative if
+     *  not logged)
+     * @param socketonly Shall the server listen only on its socket file?
+     * @checkstyle ParameterNumberCheck (15 lines)
+     */
+    private Config(
+        final int port,
+        final String usr,
+        final String password,
+        final String dbn,
+        final List<String> opts,
+        final File cache,
+        final long probe,
+        final File ram,
+        final Profile profile,
+        final boolean redirect,
+        final String verbosity,
+        final long sampling,
+        final double slow,
+        final boolean socketonly
     ) {
         this.tcpport = port;
         this.dbuser = usr;
         this.dbpassword = password;
         this.name = dbn;
         this.dbopts = Collections.unmodifiableList(opts);
+        this.cachedir = cache;
+        this.probetime = probe;
+        this.ramdir = ram;
+        this.prof = profile;
+        this.outfile = redirect;
+        this.level = verbosity;
+        this.interval = sampling;
+        this.slowtime = slow;
+        this.local = socketonly;
+    }
+
+    /**
+     * Make a copy of this configuration with another TCP port.
+     * @param port TCP port
+     * @return New configuration
+     * @since 1.0
+     */
+    public Config withPort(final int port) {
+        return this.withDatabase(
+            port, this.dbuser, this.dbpassword, this.name, this.dbopts
+        );
+    }
+
+    /**
+     * Make a copy of this configuration with another port, credentials,
+     * database and options, but the same everything else.
+     * @param port TCP port
+     * @param usr Db user name
+     * @param password Db password
+     * @param dbn Db name
+     * @param opts Configuration options
+     * @return New configuration
+     * @since 1.0
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    public Config withDatabase(final int port, final String usr,
+        final String password, final String dbn, final List<String> opts) {
+        return new Config(
+            port, usr, password, dbn, opts, this.cachedir, this.probetime,
+            this.ramdir, this.prof, this.outfile, this.level, this.interval,
+            this.slowtime, this.local
+        );
+    }
+
+    /**
+     * Make a copy of this configuration with a cache of data directories.
+     * @param cache Directory with cached data directories (may be null)
+     * @return New configuration
+     * @since 1.0
+     */
+    public Config withCache(final File cache) {
+        return new Config(
+            this.tcpport, this.dbuser, this.dbpassword, this.name,
+            this.dbopts, cache, this.probetime, this.ramdir,
+            this.prof, this.outfile, this.level, this.interval,
+            this.slowtime, this.local
+        );
+    }
+
+    /**
+     * Make a copy of this configuration with another probe timeout.
+     * @param probe Timeout of one readiness probe, in milliseconds
+     * @return New configuration
+     * @since 1.0
+     */
+    public Config withProbe(final long probe) {
+        return new Config(
+            this.tcpport, this.dbuser, this.dbpassword, this.name,
+            this.dbopts, this.cachedir, probe, this.ramdir, this.prof,
+            this.outfile, this.level, this.interval,
+            this.slowtime, this.local
+        );
+    }
+
+    /**
+     * Make a copy of this configuration, which keeps data in RAM and
+     * doesn't care about durability.
+     * @param ram RAM-backed directory, like {@code /dev/shm} (may be null)
+     * @return New configuration
+     * @since 1.0
+     */
+    public Config withEphemeral(final File ram) {
+        return new Config(
+            this.tcpport, this.dbuser, this.dbpassword, this.name,
+            this.dbopts, this.cachedir, this.probetime, ram, this.prof,
+            this.outfile, this.level, this.interval,
+            this.slowtime, this.local
+        );
+    }
+
+    /**
+     * Make a copy of this configuration with another performance profile.
+     * @param profile Performance profile
+     * @return New configuration
+     * @since 1.0
+     */
+    public Config withProfile(final Profile profile) {
+        return new Config(
+            this.tcpport, this.dbuser, this.dbpassword, this.name,
+            this.dbopts, this.cachedir, this.probetime, this.ramdir, profile,
+            this.outfile, this.level, this.interval,
+            this.slowtime, this.local
+        );
+    }
+
+    /**
+     * Make a copy of this configuration with another destination of
+     * server output.
+     * @param redirect Shall output of the server go to a file, instead
+     *  of the log?
+     * @param verbosity The least severe lines to log: note, warning
+     *  or error
+     * @return New configuration
+     * @since 1.0
+     */
+    public Config withOutput(final boolean redirect, final String verbosity) {
+        Pump.threshold(verbosity);
+        return new Config(
+            this.tcpport, this.dbuser, this.dbpassword, this.name,
+            this.dbopts, this.cachedir, this.probetime, this.ramdir,
+            this.prof, redirect, verbosity, this.interval,
+            this.slowtime, this.local
+        );
+    }
+
+    /**
+     * Make a copy of this configuration, which samples status of
+     * the server while it runs, see {@link Sampler}.
+     * @param sampling Interval of sampling, in milliseconds (zero if
+     *  not sampled)
+     * @return New configuration
+     * @since 1.0
+     */
+    public Config withSampling(final long sampling) {
+        if (sampling < 0L) {
+            throw new IllegalArgumentException(
+                String.format("Sampling interval %d is negative", sampling)
+            );
+        }
+        return new Config(
+            this.tcpport, this.dbuser, this.dbpassword, this.name,
+            this.dbopts, this.cachedir, this.probetime, this.ramdir,
+            this.prof, this.outfile, this.level, sampling, this.slowtime,
+            this.local
+        );
+    }
+
+    /**
+     * Make a copy of this configuration, which logs slow queries, see
+     * {@link SlowLog}.
+     * @param slow Threshold, {@code long_query_time} in seconds, zero to
+     *  log all queries, or negative to not log them
+     * @return New configuration
+     * @since 1.0
+     */
+    public Config withSlowLog(final double slow) {
+        return new Config(
+            this.tcpport, this.dbuser, this.dbpassword, this.name,
+            this.dbopts, this.cachedir, this.probetime, this.ramdir,
+            this.prof, this.outfile, this.level, this.interval, slow,
+            this.local
+        );
+    }
+
+    /**
+     * Make a copy of this configuration, which starts the server with
+     * networking turned off, listening only on its socket file.
+     * @param socketonly Shall the server listen only on its socket file?
+     * @return New configuration
+     * @since 1.0
+     */
+    public Config withSocketOnly(final boolean socketonly) {
+        return new Config(
+            this.tcpport, this.dbuser, this.dbpassword, this.name,
+            this.dbopts, this.cachedir, this.probetime, this.ramdir,
+            this.prof, this.outfile, this.level, this.interval,
+            this.slowtime, socketonly
+        );
     }
 
     /**
@@ -110,4 +380,86 @@ public final class Config {
     public List<String> options() {
         return this.dbopts;
     }
+
+    /**
+     * Get directory with cached data directories.
+     * @return Directory or NULL if data directories are not cached
+     * @since 1.0
+     */
+    public File cache() {
+        return this.cachedir;
+    }
+
+    /**
+     * Get timeout of one readiness probe.
+     * @return Timeout in milliseconds
+     * @since 1.0
+     */
+    public long probe() {
+        return this.probetime;
+    }
+
+    /**
+     * Get RAM-backed directory for ephemeral data.
+     * @return Directory or NULL if data must stay on disk
+     * @since 1.0
+     */
+    public File ephemeral() {
+        return this.ramdir;
+    }
+
+    /**
+     * Get performance profile.
+     * @return Profile
+     * @since 1.0
+     */
+    public Profile profile() {
+        return this.prof;
+    }
+
+    /**
+     * Shall output of the server go to a file, instead of the log?
+     * @return TRUE if so
+     * @since 1.0
+     */
+    public boolean redirected() {
+        return this.outfile;
+    }
+
+    /**
+     * Get the least severe lines of server output to log.
+     * @return Verbosity: note, warning or error
+     * @since 1.0
+     */
+    public String verbosity() {
+        return this.level;
+    }
+
+    /**
+     * Get interval of sampling of server status.
+     * @return Interval in milliseconds, zero if not sampled
+     * @since 1.0
+     */
+    public long sampling() {
+        return this.interval;
+    }
+
+    /**
+     * Get threshold of slow query log.
+     * @return Seconds, negative if slow queries are not logged
+     * @since 1.0
+     */
+    public double slowlog() {
+        return this.slowtime;
+    }
+
+    /**
+     * Shall the server listen only on its socket file, with networking
+     * turned off? The port is only the name of the instance then.
+     * @return TRUE if so
+     * @since 1.0
+     */
+    public boolean socketOnly() {
+        return this.local;
+    }
 }
@@ -0,0 +1,519 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2012-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.mysql.maven.plugin;
+
+import com.jcabi.log.Logger;
+import com.jcabi.log.VerboseRunnable;
+import com.jcabi.log.VerboseThreads;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.UnsupportedEncodingException;
+import java.math.BigInteger;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Collection;
+import java.util.LinkedList;
+import java.util.UUID;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.apache.commons.io.FileUtils;
+
+/**
+ * Pool of warm MySQL instances, leased to other Maven invocations.
+ *
+ * <p>The daemon boots a few instances and listens on a loopback TCP port,
+ * which it writes into the control file, together with a random token.
+ * The file is readable by its owner only, and every request must bring
+ * the token, so that other users of the machine can't lease instances.
+ * Clients, see {@link Lease}, speak a line-based protocol, one request
+ * per connection, with URL-encoded arguments:
+ *
+ * <pre> LEASE token dbname user password
+ * OK port
+ * RELEASE token port
+ * OK</pre>
+ *
+ * <p>A leased instance gets the database and the user created. When it's
+ * released, they are dropped and the instance goes back to the pool.
+ * Instances that stay idle longer than TTL are stopped, new ones are
+ * booted on demand.
+ *
+ * <p>The class is thread-safe.
+ * @since 1.0
+ */
+@ToString(of = { "dist", "root", "size" })
+@EqualsAndHashCode(of = { "dist", "root", "size" })
+@SuppressWarnings("PMD.DoNotUseThreads")
+final class Daemon {
+
+    /**
+     * Positive answer.
+     */
+    private static final String OK = "OK";
+
+    /**
+     * Random generator of tokens.
+     */
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    /**
+     * Instances to boot.
+     */
+    private final transient Instances instances;
+
+    /**
+     * Directory with MySQL distribution.
+     */
+    private final transient File dist;
+
+    /**
+     * Directory for data of pooled instances.
+     */
+    private final transient File root;
+
+    /**
+     * Configuration of pooled instances (port is ignored).
+     */
+    private final transient Config template;
+
+    /**
+     * How many instances to keep warm.
+     */
+    private final transient int size;
+
+    /**
+     * How long an instance may stay idle, in milliseconds.
+     */
+    private final transient long ttl;
+
+    /**
+     * Idle instances, most recently used first.
+     */
+    private final transient BlockingDeque<Daemon.Warm> idle;
+
+    /**
+     * Leased instances, by port.
+     */
+    private final transient ConcurrentMap<Integer, Daemon.Warm> leased;
+
+    /**
+     * Token that every request must bring.
+     */
+    private final transient String token;
+
+    /**
+     * The listening socket, NULL when the daemon doesn't serve.
+     */
+    private final transient AtomicReference<ServerSocket> listener;
+
+    /**
+     * Ctor.
+     * @param insts Instances to boot
+     * @param dir Directory with MySQL distribution
+     * @param data Directory for data of pooled instances
+     * @param config Configuration of pooled instances
+     * @param pool How many instances to keep warm
+     * @param idleness How long an instance may stay idle, in milliseconds
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    Daemon(final Instances insts, final File dir, final File data,
+        final Config config, final int pool, final long idleness) {
+        this(
+            insts, dir, data, config, pool, idleness,
+            new BigInteger(128, Daemon.RANDOM).toString(16)
+        );
+    }
+
+    /**
+     * Ctor.
+     * @param insts Instances to boot
+     * @param dir Directory with MySQL distribution
+     * @param data Directory for data of pooled instances
+     * @param config Configuration of pooled instances
+     * @param pool How many instances to keep warm
+     * @param idleness How long an instance may stay idle, in milliseconds
+     * @param secret Token that every request must bring
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    Daemon(final Instances insts, final File dir, final File data,
+        final Config config, final int pool, final long idleness,
+        final String secret) {
+        this.instances = insts;
+        this.dist = dir;
+        this.root = data;
+        this.template = config;
+        this.size = pool;
+        this.ttl = idleness;
+        this.idle = new LinkedBlockingDeque<>();
+        this.leased = new ConcurrentHashMap<>(0);
+        this.token = secret;
+        this.listener = new AtomicReference<>();
+    }
+
+    /**
+     * Boot the pool and serve clients until {@link #stop()}.
+     * @param control Control file, where to write the port and the token
+     * @throws IOException If fails
+     */
+    public void serve(final File control) throws IOException {
+        final ScheduledExecutorService evictor =
+            Executors.newSingleThreadScheduledExecutor(new VerboseThreads(this));
+        final ExecutorService workers =
+            Executors.newCachedThreadPool(new VerboseThreads(this));
+        try (ServerSocket server = new ServerSocket(
+            0, 0, InetAddress.getLoopbackAddress()
+        )) {
+            this.listener.set(server);
+            for (int idx = 0; idx < this.size; ++idx) {
+                this.idle.add(this.boot());
+            }
+            Daemon.restricted(control);
+            FileUtils.writeStringToFile(
+                control,
+                String.format("%d %s", server.getLocalPort(), this.token),
+                StandardCharsets.UTF_8
+            );
+            control.deleteOnExit();
+            evictor.scheduleWithFixedDelay(
+                new VerboseRunnable(this::evict, true),
+                1L, 1L, TimeUnit.MINUTES
+            );
+            Logger.info(
+                this, "Daemon with %d warm instance(s) is listening at %d",
+                this.size, server.getLocalPort()
+            );
+            while (!server.isClosed()) {
+                try {
+                    final Socket socket = server.accept();
+                    workers.submit(
+                        new VerboseRunnable(() -> this.handle(socket), true)
+                    );
+                } catch (final SocketException ex) {
+                    if (!server.isClosed()) {
+                        throw ex;
+                    }
+                }
+            }
+            Logger.info(this, "Daemon stopped");
+        } finally {
+            this.listener.set(null);
+            evictor.shutdownNow();
+            workers.shutdownNow();
+            FileUtils.deleteQuietly(control);
+            this.drain();
+        }
+    }
+
+    /**
+     * Stop serving clients, from any thread; {@link #serve(File)} returns
+     * then.
+     */
+    public void stop() {
+        final ServerSocket server = this.listener.get();
+        if (server != null) {
+            try {
+                server.close();
+            } catch (final IOException ex) {
+                Logger.warn(this, "Failed to stop: %[exception]s", ex);
+            }
+        }
+    }
+
+    /**
+     * Process one request.
+     * @param line Request line
+     * @return Response line
+     * @throws IOException If fails
+     */
+    public String respond(final String line) throws IOException {
+        final String[] parts = line.trim().split(" ");
+        final String answer;
+        if (parts.length < 2 || !MessageDigest.isEqual(
+            this.token.getBytes(StandardCharsets.UTF_8),
+            parts[1].getBytes(StandardCharsets.UTF_8)
+        )) {
+            answer = "ERROR wrong token";
+        } else if ("LEASE".equals(parts[0]) && parts.length == 5) {
+            answer = String.format(
+                "%s %d", Daemon.OK,
+                this.lease(
+                    Daemon.decode(parts[2]), Daemon.decode(parts[3]),
+                    Daemon.decode(parts[4])
+                )
+            );
+        } else if ("RELEASE".equals(parts[0]) && parts.length == 3) {
+            this.release(Integer.parseInt(parts[2]));
+            answer = Daemon.OK;
+        } else {
+            answer = String.format("ERROR unknown request: %s", line);
+        }
+        return answer;
+    }
+
+    /**
+     * Handle one client connection.
+     * @param socket The socket
+     */
+    private void handle(final Socket socket) {
+        try (
+            Socket sock = socket;
+            BufferedReader reader = new BufferedReader(
+                new InputStreamReader(sock.getInputStream(), StandardCharsets.UTF_8)
+            );
+            PrintWriter writer = new PrintWriter(
+                new OutputStreamWriter(sock.getOutputStream(), StandardCharsets.UTF_8)
+            )
+        ) {
+            String answer;
+            try {
+                answer = this.respond(String.valueOf(reader.readLine()));
+            } catch (final IOException | IllegalArgumentException ex) {
+                answer = String.format("ERROR %s", ex.getMessage());
+            }
+            writer.println(answer);
+        } catch (final IOException ex) {
+            Logger.warn(this, "Failed to talk to the client: %[exception]s", ex);
+        }
+    }
+
+    /**
+     * Lease an instance.
+     * @param dbname Database to create
+     * @param user User to create
+     * @param password Password of the user
+     * @return Port of the instance
+     * @throws IOException If fails
+     */
+    private int lease(final String dbname, final String user,
+        final String password) throws IOException {
+        Daemon.Warm warm = this.idle.pollFirst();
+        if (warm == null) {
+            warm = this.boot();
+        }
+        final Config config = this.template.withDatabase(
+            warm.port(), user, password, dbname, this.template.options()
+        );
+        new Client(this.dist, warm.socket()).execute(new Bootstrap(config).sql());
+        this.leased.put(warm.port(), warm.with(config));
+        Logger.info(
+            this, "Instance at %d leased with '%s' database",
+            warm.port(), dbname
+        );
+        return warm.port();
+    }
+
+    /**
+     * Take an instance back, resetting its database.
+     * @param port Port of the instance
+     * @throws IOException If fails
+     */
+    private void release(final int port) throws IOException {
+        final Daemon.Warm warm = this.leased.remove(port);
+        if (warm == null) {
+            throw new IllegalArgumentException(
+                String.format("Instance at %d is not leased", port)
+            );
+        }
+        final Config config = warm.config();
+        final StringBuilder sql = new StringBuilder(0).append(
+            String.format(
+                "DROP DATABASE IF EXISTS %s;", Bootstrap.quote(config.dbname())
+            )
+        );
+        if (!Instances.DEFAULT_USER.equals(config.user())) {
+            sql.append(
+                String.format(
+                    "DROP USER IF EXISTS '%s'@'%s';",
+                    Bootstrap.escape(config.user()), Instances.host(config)
+                )
+            );
+        }
+        new Client(this.dist, warm.socket()).execute(sql.toString());
+        this.idle.addFirst(warm.with(this.template.withPort(port)));
+        Logger.info(this, "Instance at %d released and reset", port);
+    }
+
+    /**
+     * Stop instances that stayed idle for too long.
+     */
+    private void evict() {
+        for (final Daemon.Warm warm : this.idle) {
+            if (System.currentTimeMillis() - warm.since() > this.ttl
+                && this.idle.remove(warm)) {
+                this.instances.stop(warm.port());
+                FileUtils.deleteQuietly(warm.target());
+                Logger.info(
+                    this, "Instance at %d evicted after %[ms]s of idleness",
+                    warm.port(), this.ttl
+                );
+            }
+        }
+    }
+
+    /**
+     * Stop all instances of the pool, idle and leased, and delete their
+     * directories.
+     */
+    private void drain() {
+        final Collection<Daemon.Warm> all = new LinkedList<>(
+            this.leased.values()
+        );
+        this.leased.clear();
+        this.idle.drainTo(all);
+        for (final Daemon.Warm warm : all) {
+            this.instances.stop(warm.port());
+            FileUtils.deleteQuietly(warm.target());
+        }
+        Logger.info(this, "%d instance(s) of the pool stopped", all.size());
+    }
+
+    /**
+     * Boot a new instance, at a free port.
+     * @return The instance
+     * @throws IOException If fails
+     */
+    private Daemon.Warm boot() throws IOException {
+        final File target = new File(
+            this.root, UUID.randomUUID().toString()
+        );
+        final Config config = this.instances.start(
+            this.template.withPort(Instances.AUTO), this.dist, target,
+            true, null
+        );
+        return new Daemon.Warm(target, config);
+    }
+
+    /**
+     * Create an empty file, which only its owner can read and write.
+     * @param file The file
+     * @throws IOException If fails
+     */
+    private static void restricted(final File file) throws IOException {
+        Files.deleteIfExists(file.toPath());
+        FileUtils.touch(file);
+        if (!file.setReadable(false, false) || !file.setReadable(true, true)
+            || !file.setWritable(false, false)
+            || !file.setWritable(true, true)) {
+            throw new IOException(
+                String.format("Can't restrict access to %s", file)
+            );
+        }
+    }
+
+    /**
+     * URL-decode protocol argument.
+     * @param arg The argument
+     * @return Decoded text
+     * @throws UnsupportedEncodingException If fails
+     */
+    private static String decode(final String arg)
+        throws UnsupportedEncodingException {
+        return URLDecoder.decode(arg, StandardCharsets.UTF_8.name());
+    }
+
+    /**
+     * Warm instance.
+     * @since 1.0
+     */
+    @ToString
+    @EqualsAndHashCode
+    private static final class Warm {
+        /**
+         * Its directory.
+         */
+        private final transient File dir;
+
+        /**
+         * Its configuration, with the database of the lease, if leased.
+         */
+        private final transient Config cfg;
+
+        /**
+         * When it became idle, or leased.
+         */
+        private final transient long time;
+
+        /**
+         * Ctor.
+         * @param target Its directory
+         * @param config Its configuration
+         */
+        Warm(final File target, final Config config) {
+            this.dir = target;
+            this.cfg = config;
+            this.time = System.currentTimeMillis();
+        }
+
+        /**
+         * The same instance with another configuration.
+         * @param config The configuration
+         * @return The instance
+         */
+        Daemon.Warm with(final Config config) {
+            return new Daemon.Warm(this.dir, config);
+        }
+
+        /**
+         * Its port.
+         * @return Port
+         */
+        int port() {
+            return this.cfg.port();
+        }
+
+        /**
+         * Its configuration.
+         * @return Configuration
+         */
+        Config config() {
+            return this.cfg;
+        }
+
+        /**
+         * Its directory.
+         * @return Directory
+         */
+        File target() {
+            return this.dir;
+        }
+
+        /**
+         * Its socket.
+         * @return Socket file
+         */
+        File socket() {
+            return new File(this.dir, "mysql.sock");
+        }
+
+        /**
+         * When it became idle.
+         * @return Time in milliseconds
+         */
+        long since() {
+            return this.time;
+        }
+    }
+
+}
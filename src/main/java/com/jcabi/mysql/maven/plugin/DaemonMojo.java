@@ -0,0 +1,67 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2012-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.mysql.maven.plugin;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+
+/**
+ * Keep a pool of warm MySQL instances and lease them to other builds.
+ *
+ * <p>Run it in a separate terminal with {@code mvn jcabi-mysql:daemon}
+ * and then build with {@code -Djcabi.mysql.lease=true}: the {@code start}
+ * goal will take a running instance from the pool in milliseconds and
+ * the {@code stop} goal will give it back, with its database dropped.
+ * Press Ctrl-C to stop the daemon.
+ *
+ * @since 1.0
+ */
+@ToString
+@EqualsAndHashCode(callSuper = false)
+@Mojo(threadSafe = true, name = "daemon")
+public final class DaemonMojo extends AbstractMysqlMojo {
+
+    /**
+     * How many instances to keep warm.
+     */
+    @Parameter(
+        defaultValue = "2",
+        required = false
+    )
+    private transient int pool;
+
+    /**
+     * How long an instance may stay idle before it's stopped, in minutes.
+     */
+    @Parameter(
+        defaultValue = "30",
+        required = false
+    )
+    private transient long ttl;
+
+    @Override
+    public void run(final Instances instances) throws MojoFailureException {
+        final Daemon daemon = new Daemon(
+            instances,
+            this.distDir(),
+            this.dataDir(),
+            this.config(),
+            this.pool,
+            TimeUnit.MINUTES.toMillis(this.ttl)
+        );
+        Runtime.getRuntime().addShutdownHook(new Thread(daemon::stop));
+        try {
+            daemon.serve(this.daemonFile());
+        } catch (final IOException ex) {
+            throw new MojoFailureException("MySQL daemon failed", ex);
+        }
+    }
+
+}
@@ -0,0 +1,331 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2012-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.mysql.maven.plugin;
+
+import com.jcabi.log.Logger;
+import java.io.File;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.apache.commons.io.FileUtils;
+
+/**
+ * Shared cache of freshly initialized MySQL data directories.
+ *
+ * <p>Initialization of a data directory (either with
+ * {@code mysqld --initialize-insecure} or with
+ * {@code scripts/mysql_install_db}) is slow, while its result depends
+ * only on the distribution and on the arguments of initialization. This
+ * class initializes a "golden" copy once per such key and then populates
+ * target data directories from it.
+ *
+ * <p>The key is a SHA-256 of the initialization arguments and of the
+ * distribution fingerprint: relative path and content of every file
+ * inside it. When the distribution changes, even if a binary is rebuilt
+ * with the same size, the key changes too and a new golden copy is
+ * created. The content is read only once, while the path, size and
+ * modification time of its files stay the same: the fingerprint is saved
+ * in the {@code prints} directory of the cache, named by a hash of them.
+ *
+ * <p>The class is thread-safe. It can also be used by concurrent builds
+ * on the same machine, since every key is guarded by a file lock.
+ *
+ * @since 1.0
+ */
+@ToString
+@EqualsAndHashCode(of = { "root", "clone" })
+final class DataCache {
+
+    /**
+     * JVM-wide monitors, one per golden directory, since file locks
+     * don't protect from other threads of the same JVM.
+     */
+    private static final ConcurrentMap<String, Object> MONITORS =
+        new ConcurrentHashMap<>(0);
+
+    /**
+     * Fingerprints of distributions, by the path, size and modification
+     * time of their files.
+     */
+    private static final ConcurrentMap<String, String> PRINTS =
+        new ConcurrentHashMap<>(0);
+
+    /**
+     * File created by MySQL at initialization, with a unique server UUID.
+     */
+    private static final String AUTO_CNF = "auto.cnf";
+
+    /**
+     * Root directory of the cache.
+     */
+    private final transient File root;
+
+    /**
+     * How to clone golden copies.
+     */
+    private final transient Clone clone;
+
+    /**
+     * Ctor.
+     * @param dir Root directory of the cache
+     */
+    DataCache(final File dir) {
+        this(dir, new Clone.Fastest());
+    }
+
+    /**
+     * Ctor.
+     * @param dir Root directory of the cache
+     * @param cln How to clone golden copies
+     */
+    DataCache(final File dir, final Clone cln) {
+        this.root = dir;
+        this.clone = cln;
+    }
+
+    /**
+     * Populate the target data directory from the golden copy, creating
+     * the golden copy first if it's absent.
+     * @param dist Directory with MySQL distribution
+     * @param args Arguments of initialization, which make the key unique
+     * @param init Initializer of a new golden copy
+     * @param target Data directory to populate (must be absent)
+     * @throws IOException If fails
+     */
+    public void populate(final File dist, final List<String> args,
+        final DataCache.Initializer init, final File target)
+        throws IOException {
+        final File golden = this.golden(dist, args, init);
+        if (!this.clone.copy(golden.toPath(), target.toPath())) {
+            throw new IOException(
+                String.format("Failed to clone %s into %s", golden, target)
+            );
+        }
+        Files.deleteIfExists(new File(target, DataCache.AUTO_CNF).toPath());
+    }
+
+    /**
+     * Find or create the golden copy.
+     * @param dist Directory with MySQL distribution
+     * @param args Arguments of initialization
+     * @param init Initializer of a new golden copy
+     * @return Directory with the golden copy
+     * @throws IOException If fails
+     */
+    private File golden(final File dist, final List<String> args,
+        final DataCache.Initializer init) throws IOException {
+        final String key = this.key(dist, args);
+        final File golden = new File(this.root, key);
+        if (!golden.exists()) {
+            if (this.root.mkdirs()) {
+                Logger.info(this, "created %s directory", this.root);
+            }
+            final Object monitor = DataCache.MONITORS.computeIfAbsent(
+                golden.getAbsolutePath(), path -> new Object()
+            );
+            synchronized (monitor) {
+                try (FileChannel channel = FileChannel.open(
+                    new File(this.root, String.format("%s.lock", key)).toPath(),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE
+                )) {
+                    final FileLock lock = channel.lock();
+                    try {
+                        if (!golden.exists()) {
+                            this.initialize(golden, init);
+                        }
+                    } finally {
+                        lock.release();
+                    }
+                }
+            }
+        }
+        return golden;
+    }
+
+    /**
+     * Initialize a new golden copy and atomically put it into place.
+     * @param golden Where the golden copy should be
+     * @param init Initializer
+     * @throws IOException If fails
+     */
+    private void initialize(final File golden,
+        final DataCache.Initializer init) throws IOException {
+        final File temp = new File(
+            this.root,
+            String.format("%s.%s", golden.getName(), UUID.randomUUID())
+        );
+        final long start = System.currentTimeMillis();
+        try {
+            init.init(temp);
+            Files.move(
+                temp.toPath(), golden.toPath(),
+                StandardCopyOption.ATOMIC_MOVE
+            );
+        } finally {
+            FileUtils.deleteQuietly(temp);
+        }
+        Logger.info(
+            this, "Golden data directory %s initialized in %[ms]s",
+            golden, System.currentTimeMillis() - start
+        );
+    }
+
+    /**
+     * Calculate the key of the golden copy.
+     * @param dist Directory with MySQL distribution
+     * @param args Arguments of initialization
+     * @return Hex SHA-256
+     * @throws IOException If fails
+     */
+    private String key(final File dist, final List<String> args)
+        throws IOException {
+        final MessageDigest digest = DataCache.digest();
+        for (final String arg : args) {
+            digest.update(arg.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+        }
+        digest.update(
+            this.fingerprint(dist).getBytes(StandardCharsets.UTF_8)
+        );
+        return String.format("%064x", new BigInteger(1, digest.digest()));
+    }
+
+    /**
+     * Calculate the fingerprint of the distribution, or take it from
+     * {@link #PRINTS} or from the file saved by an earlier build, if its
+     * files didn't change since then.
+     * @param dist Directory with MySQL distribution
+     * @return Hex SHA-256 of the relative paths and content of its files
+     * @throws IOException If fails
+     */
+    private String fingerprint(final File dist) throws IOException {
+        final Path base = dist.toPath().toAbsolutePath();
+        final List<Path> files;
+        try (Stream<Path> all = Files.walk(base)) {
+            files = all.filter(Files::isRegularFile)
+                .sorted()
+                .collect(Collectors.toList());
+        }
+        final StringBuilder listing = new StringBuilder(base.toString());
+        for (final Path file : files) {
+            listing.append('\n').append(base.relativize(file))
+                .append(':').append(Files.size(file))
+                .append(':').append(Files.getLastModifiedTime(file).toMillis());
+        }
+        final File saved = new File(
+            new File(this.root, "prints"),
+            String.format(
+                "%064x",
+                new BigInteger(
+                    1,
+                    DataCache.digest().digest(
+                        listing.toString().getBytes(StandardCharsets.UTF_8)
+                    )
+                )
+            )
+        );
+        String print = DataCache.PRINTS.get(listing.toString());
+        if (print == null && saved.exists()) {
+            print = FileUtils.readFileToString(saved, StandardCharsets.UTF_8)
+                .trim();
+            DataCache.PRINTS.put(listing.toString(), print);
+        }
+        if (print == null) {
+            final long start = System.currentTimeMillis();
+            final MessageDigest digest = DataCache.digest();
+            final ByteBuffer buffer = ByteBuffer.allocate(1 << 16);
+            for (final Path file : files) {
+                digest.update(
+                    String.format("%s\n", base.relativize(file))
+                        .getBytes(StandardCharsets.UTF_8)
+                );
+                try (FileChannel channel = FileChannel.open(file)) {
+                    while (channel.read(buffer) >= 0) {
+                        ((Buffer) buffer).flip();
+                        digest.update(buffer);
+                        ((Buffer) buffer).clear();
+                    }
+                }
+            }
+            print = String.format("%064x", new BigInteger(1, digest.digest()));
+            DataCache.PRINTS.put(listing.toString(), print);
+            DataCache.save(saved, print);
+            Logger.info(
+                DataCache.class, "Fingerprint of %s is %s, read in %[ms]s",
+                dist, print, System.currentTimeMillis() - start
+            );
+        }
+        return print;
+    }
+
+    /**
+     * Save the fingerprint atomically, so that concurrent builds never
+     * read a half-written one.
+     * @param file Where to save it
+     * @param print The fingerprint
+     * @throws IOException If fails
+     */
+    private static void save(final File file, final String print)
+        throws IOException {
+        final File temp = new File(
+            file.getParentFile(),
+            String.format("%s.%s", file.getName(), UUID.randomUUID())
+        );
+        try {
+            FileUtils.writeStringToFile(temp, print, StandardCharsets.UTF_8);
+            Files.move(
+                temp.toPath(), file.toPath(),
+                StandardCopyOption.ATOMIC_MOVE,
+                StandardCopyOption.REPLACE_EXISTING
+            );
+        } finally {
+            FileUtils.deleteQuietly(temp);
+        }
+    }
+
+    /**
+     * Make a new SHA-256 digest.
+     * @return Digest
+     */
+    private static MessageDigest digest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (final NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    /**
+     * Initializer of a new data directory.
+     * @since 1.0
+     */
+    interface Initializer {
+        /**
+         * Initialize MySQL data in the directory.
+         * @param dir Directory to initialize (absent yet)
+         * @throws IOException If fails
+         */
+        void init(File dir) throws IOException;
+    }
+
+}
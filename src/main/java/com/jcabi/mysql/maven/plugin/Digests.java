@@ -0,0 +1,302 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2012-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.mysql.maven.plugin;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.apache.commons.io.FileUtils;
+
+/**
+ * Statement digests of a running MySQL server, from
+ * {@code performance_schema.events_statements_summary_by_digest}.
+ *
+ * <p>Statistics of every digest are summed over all user schemas, so that
+ * the same statement in clones of the database counts once, and divided
+ * by the number of calls, so that they don't depend on how many times
+ * tests run it. Digests are saved into a text file, one per line, sorted,
+ * to be committed and compared with later. Digest hashes depend on the
+ * version of MySQL, so the baseline has to be rewritten when the
+ * distribution changes.
+ *
+ * <p>The class is immutable and thread-safe.
+ * @since 1.0
+ */
+@ToString
+@EqualsAndHashCode(of = "stats")
+final class Digests {
+
+    /**
+     * Header of the file.
+     */
+    private static final String HEADER =
+        "# digest\tcalls\trows/call\tscans/call\ttmp/call\tms/call\ttext";
+
+    /**
+     * Query of the digests.
+     */
+    private static final String QUERY = String.join(
+        " ",
+        "SELECT DIGEST, SUM(COUNT_STAR), SUM(SUM_ROWS_EXAMINED),",
+        "SUM(SUM_NO_INDEX_USED), SUM(SUM_CREATED_TMP_TABLES),",
+        "SUM(SUM_TIMER_WAIT), MAX(DIGEST_TEXT)",
+        "FROM performance_schema.events_statements_summary_by_digest",
+        "WHERE DIGEST IS NOT NULL AND SCHEMA_NAME IS NOT NULL",
+        "AND SCHEMA_NAME NOT IN",
+        "('mysql', 'sys', 'performance_schema', 'information_schema')",
+        "GROUP BY DIGEST;"
+    );
+
+    /**
+     * Statistics, by digest.
+     */
+    private final transient Map<String, Digests.Stats> stats;
+
+    /**
+     * Ctor.
+     * @param map Statistics, by digest
+     */
+    Digests(final Map<String, Digests.Stats> map) {
+        this.stats = Collections.unmodifiableMap(new TreeMap<>(map));
+    }
+
+    /**
+     * Read digests from the running server.
+     * @param client Client of the server
+     * @return Digests
+     * @throws IOException If fails
+     */
+    public static Digests fetch(final Client client) throws IOException {
+        final Map<String, Digests.Stats> map = new TreeMap<>();
+        for (final String line : client.execute(Digests.QUERY).split("\n")) {
+            final String[] parts = line.split("\t", 7);
+            if (parts.length == 7) {
+                final double calls = Math.max(1.0d, Double.parseDouble(parts[1]));
+                map.put(
+                    parts[0],
+                    new Digests.Stats(
+                        (long) calls,
+                        new double[] {
+                            Double.parseDouble(parts[2]) / calls,
+                            Double.parseDouble(parts[3]) / calls,
+                            Double.parseDouble(parts[4]) / calls,
+                            Double.parseDouble(parts[5]) / calls / 1.0e9d,
+                        },
+                        parts[6]
+                    )
+                );
+            }
+        }
+        return new Digests(map);
+    }
+
+    /**
+     * Load digests from the file, saved by {@link #save(File)}.
+     * @param file The file
+     * @return Digests
+     * @throws IOException If fails
+     */
+    public static Digests load(final File file) throws IOException {
+        final Map<String, Digests.Stats> map = new TreeMap<>();
+        for (final String line
+            : Files.readAllLines(file.toPath(), StandardCharsets.UTF_8)) {
+            final String[] parts = line.split("\t", 7);
+            if (!line.startsWith("#") && parts.length == 7) {
+                map.put(
+                    parts[0],
+                    new Digests.Stats(
+                        Long.parseLong(parts[1]),
+                        new double[] {
+                            Double.parseDouble(parts[2]),
+                            Double.parseDouble(parts[3]),
+                            Double.parseDouble(parts[4]),
+                            Double.parseDouble(parts[5]),
+                        },
+                        parts[6]
+                    )
+                );
+            }
+        }
+        return new Digests(map);
+    }
+
+    /**
+     * Save digests into the file.
+     * @param file The file
+     * @throws IOException If fails
+     */
+    public void save(final File file) throws IOException {
+        final StringBuilder text = new StringBuilder(Digests.HEADER)
+            .append('\n');
+        for (final Map.Entry<String, Digests.Stats> entry
+            : this.stats.entrySet()) {
+            final Digests.Stats stat = entry.getValue();
+            text.append(
+                String.format(
+                    Locale.ENGLISH, "%s\t%d\t%.3f\t%.3f\t%.3f\t%.3f\t%s\n",
+                    entry.getKey(), stat.calls, stat.values[0],
+                    stat.values[1], stat.values[2], stat.values[3], stat.text
+                )
+            );
+        }
+        FileUtils.writeStringToFile(file, text.toString(), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * How many digests there are.
+     * @return Count
+     */
+    public int size() {
+        return this.stats.size();
+    }
+
+    /**
+     * Find digests that got worse than in the baseline.
+     *
+     * <p>Rows examined per call regress when they grow more than
+     * {@code tolerance} times, full scans and temporary tables per call
+     * regress when they appear or grow that much, and latency regresses
+     * when it grows more than {@code slowdown} times, but never below
+     * one millisecond.
+     * @param baseline The baseline
+     * @param tolerance How many times rows, scans and temporary tables
+     *  may grow
+     * @param slowdown How many times latency may grow, or zero to not
+     *  compare it
+     * @return Descriptions of regressions
+     */
+    public Collection<String> regressions(final Digests baseline,
+        final double tolerance, final double slowdown) {
+        final Collection<String> found = new LinkedList<>();
+        for (final Map.Entry<String, Digests.Stats> entry
+            : this.stats.entrySet()) {
+            final Digests.Stats before = baseline.stats.get(entry.getKey());
+            if (before != null) {
+                final Digests.Stats after = entry.getValue();
+                Digests.check(
+                    found, after, "rows examined", 0,
+                    tolerance * Math.max(1.0d, before.values[0])
+                );
+                Digests.check(
+                    found, after, "full scans", 1,
+                    Digests.limit(before.values[1], tolerance)
+                );
+                Digests.check(
+                    found, after, "temporary tables", 2,
+                    Digests.limit(before.values[2], tolerance)
+                );
+                if (slowdown > 0.0d) {
+                    Digests.check(
+                        found, after, "milliseconds", 3,
+                        slowdown * Math.max(1.0d, before.values[3])
+                    );
+                }
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Find digests that are not in the baseline.
+     * @param baseline The baseline
+     * @return Texts of them
+     */
+    public Collection<String> unknown(final Digests baseline) {
+        final Collection<String> found = new LinkedList<>();
+        for (final Map.Entry<String, Digests.Stats> entry
+            : this.stats.entrySet()) {
+            if (!baseline.stats.containsKey(entry.getKey())) {
+                found.add(entry.getValue().text);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * The most a counter per call, which is zero for some statements,
+     * may reach.
+     * @param before Its value in the baseline
+     * @param tolerance How many times it may grow
+     * @return Limit
+     */
+    private static double limit(final double before, final double tolerance) {
+        final double max;
+        if (before == 0.0d) {
+            max = 0.0d;
+        } else {
+            max = before * tolerance;
+        }
+        return max;
+    }
+
+    /**
+     * Add a regression if the value is over the limit.
+     * @param found Regressions found
+     * @param stat Statistics of the digest
+     * @param label What the value is
+     * @param idx Position of the value
+     * @param max The limit
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    private static void check(final Collection<String> found,
+        final Digests.Stats stat, final String label, final int idx,
+        final double max) {
+        if (stat.values[idx] > max + 1.0e-3d) {
+            found.add(
+                String.format(
+                    Locale.ENGLISH, "%.3f %s per call instead of at most %.3f: %s",
+                    stat.values[idx], label, max, stat.text
+                )
+            );
+        }
+    }
+
+    /**
+     * Statistics of one digest.
+     * @since 1.0
+     */
+    @ToString
+    @EqualsAndHashCode
+    static final class Stats {
+        /**
+         * How many calls.
+         */
+        private final transient long calls;
+
+        /**
+         * Rows examined, full scans, temporary tables and milliseconds,
+         * per call.
+         */
+        private final transient double[] values;
+
+        /**
+         * Text of the digest.
+         */
+        private final transient String text;
+
+        /**
+         * Ctor.
+         * @param count How many calls
+         * @param vals Rows examined, full scans, temporary tables and
+         *  milliseconds, per call
+         * @param txt Text of the digest
+         */
+        Stats(final long count, final double[] vals, final String txt) {
+            this.calls = count;
+            this.values = vals.clone();
+            this.text = txt;
+        }
+    }
+
+}
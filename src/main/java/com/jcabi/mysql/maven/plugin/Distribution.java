@@ -0,0 +1,251 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2012-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.mysql.maven.plugin;
+
+import com.jcabi.log.Logger;
+import com.jcabi.log.VerboseThreads;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.Enumeration;
+import java.util.LinkedList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Pattern;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.apache.commons.io.FileUtils;
+
+/**
+ * Shared store of unpacked MySQL distributions.
+ *
+ * <p>Every distribution is unpacked into a directory named by the
+ * SHA-256 checksum of its archive, so that all modules and builds on the
+ * machine unpack it once. Entries are extracted in parallel into
+ * a temporary directory, which is atomically renamed when it's complete,
+ * so that concurrent builds either see a complete directory or unpack
+ * their own copy, and the first rename wins. Trimmed distributions, without
+ * debug binaries, test suites, static libraries, headers and manuals,
+ * have their own directories.
+ *
+ * <p>The class is immutable and thread-safe.
+ * @since 1.0
+ */
+@ToString
+@EqualsAndHashCode(of = "store")
+final class Distribution {
+
+    /**
+     * Entries that are never used by the plugin.
+     */
+    private static final Pattern UNUSED = Pattern.compile(
+        String.join(
+            "|",
+            "(.*/)?mysql-test/.*",
+            "(.*/)?debug/.*",
+            "(.*/)?bin/[^/]+-debug(\\.exe)?",
+            "(.*/)?(man|docs|include)/.*",
+            ".*\\.(a|lib|pdb)"
+        )
+    );
+
+    /**
+     * Directories with executables.
+     */
+    private static final Pattern EXECUTABLE = Pattern.compile(
+        "(.*/)?(bin|scripts)/[^/]+"
+    );
+
+    /**
+     * Root of the store.
+     */
+    private final transient File store;
+
+    /**
+     * Ctor.
+     * @param root Root of the store
+     */
+    Distribution(final File root) {
+        this.store = root;
+    }
+
+    /**
+     * Unpack the archive into the store, unless it's already there.
+     * @param zip The archive
+     * @param trim Skip entries that are never used?
+     * @return Directory with the distribution
+     * @throws IOException If fails
+     */
+    public File unpack(final File zip, final boolean trim) throws IOException {
+        final long start = System.currentTimeMillis();
+        String name = Distribution.checksum(zip);
+        if (trim) {
+            name = String.format("%s-trimmed", name);
+        }
+        final File dir = new File(this.store, name);
+        if (dir.isDirectory()) {
+            Logger.info(this, "MySQL distribution %s is already in %s", zip, dir);
+        } else {
+            Files.createDirectories(this.store.toPath());
+            final Path temp = Files.createTempDirectory(
+                this.store.toPath(), String.format("%s.", name)
+            );
+            try {
+                final int count = Distribution.extract(zip, temp, trim);
+                Distribution.publish(temp, dir.toPath());
+                Logger.info(
+                    this, "%d file(s) of MySQL distribution %s unpacked into %s in %[ms]s",
+                    count, zip, dir, System.currentTimeMillis() - start
+                );
+            } finally {
+                FileUtils.deleteQuietly(temp.toFile());
+            }
+        }
+        return dir;
+    }
+
+    /**
+     * Move the complete directory to its place, unless some other build
+     * did it first.
+     * @param temp Complete directory
+     * @param dir Its place
+     * @throws IOException If fails
+     */
+    private static void publish(final Path temp, final Path dir)
+        throws IOException {
+        try {
+            Files.move(temp, dir, StandardCopyOption.ATOMIC_MOVE);
+        } catch (final FileAlreadyExistsException ex) {
+            Logger.info(
+                Distribution.class, "%s was unpacked by another build", dir
+            );
+        } catch (final AtomicMoveNotSupportedException ex) {
+            throw new IOException(
+                String.format("Can't rename %s to %s atomically", temp, dir),
+                ex
+            );
+        } catch (final IOException ex) {
+            if (!Files.isDirectory(dir)) {
+                throw ex;
+            }
+            Logger.info(
+                Distribution.class, "%s was unpacked by another build", dir
+            );
+        }
+    }
+
+    /**
+     * Extract entries of the archive in parallel.
+     * @param zip The archive
+     * @param dir Where to extract them
+     * @param trim Skip entries that are never used?
+     * @return How many files were extracted
+     * @throws IOException If fails
+     */
+    private static int extract(final File zip, final Path dir,
+        final boolean trim) throws IOException {
+        final ExecutorService service = Executors.newFixedThreadPool(
+            Runtime.getRuntime().availableProcessors(),
+            new VerboseThreads(Distribution.class)
+        );
+        try (ZipFile archive = new ZipFile(zip)) {
+            final Collection<Future<Path>> futures = new LinkedList<>();
+            final Enumeration<? extends ZipEntry> entries = archive.entries();
+            while (entries.hasMoreElements()) {
+                final ZipEntry entry = entries.nextElement();
+                final Path path = dir.resolve(entry.getName()).normalize();
+                if (!path.startsWith(dir)) {
+                    throw new IOException(
+                        String.format("Entry %s is outside of %s", entry, dir)
+                    );
+                }
+                if (trim && Distribution.UNUSED.matcher(entry.getName()).matches()) {
+                    Logger.debug(Distribution.class, "%s skipped", entry);
+                } else if (entry.isDirectory()) {
+                    Files.createDirectories(path);
+                } else {
+                    futures.add(
+                        service.submit(() -> Distribution.copy(archive, entry, path))
+                    );
+                }
+            }
+            for (final Future<Path> future : futures) {
+                future.get();
+            }
+            return futures.size();
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(ex);
+        } catch (final ExecutionException ex) {
+            throw new IOException(
+                String.format("Failed to unpack %s", zip), ex.getCause()
+            );
+        } finally {
+            service.shutdownNow();
+        }
+    }
+
+    /**
+     * Copy one entry of the archive.
+     * @param archive The archive
+     * @param entry The entry
+     * @param path Where to copy it
+     * @return The path
+     * @throws IOException If fails
+     */
+    private static Path copy(final ZipFile archive, final ZipEntry entry,
+        final Path path) throws IOException {
+        Files.createDirectories(path.getParent());
+        try (InputStream input = archive.getInputStream(entry)) {
+            Files.copy(input, path);
+        }
+        if (Distribution.EXECUTABLE.matcher(entry.getName()).matches()
+            && !path.toFile().setExecutable(true)) {
+            Logger.warn(Distribution.class, "Can't make %s executable", path);
+        }
+        return path;
+    }
+
+    /**
+     * Calculate SHA-256 checksum of the file.
+     * @param file The file
+     * @return Checksum, in hex
+     * @throws IOException If fails
+     */
+    private static String checksum(final File file) throws IOException {
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (final NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+        final byte[] buffer = new byte[1 << 20];
+        try (InputStream input = Files.newInputStream(file.toPath())) {
+            int len = input.read(buffer);
+            while (len >= 0) {
+                digest.update(buffer, 0, len);
+                len = input.read(buffer);
+            }
+        }
+        final StringBuilder hex = new StringBuilder(64);
+        for (final byte bte : digest.digest()) {
+            hex.append(String.format("%02x", bte));
+        }
+        return hex.toString();
+    }
+
+}
@@ -0,0 +1,270 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2012-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.mysql.maven.plugin;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import lombok.ToString;
+
+/**
+ * Handle of one instance in {@link Instances}, from the claim of its
+ * port till its stop.
+ *
+ * <p>All starts that share the instance hold the same handle, and
+ * the ones that come while it boots wait for it. The handle is locked by
+ * itself, not by the whole {@link Instances}, so that slow work with one
+ * instance never blocks another one.
+ *
+ * <p>The class is thread-safe.
+ * @since 1.0
+ */
+@ToString(of = { "config", "target", "users" })
+final class Handle {
+
+    /**
+     * Instance configuration.
+     */
+    private final transient Config config;
+
+    /**
+     * Path to MySQL distribution.
+     */
+    private final transient File dist;
+
+    /**
+     * Where the instance keeps its data.
+     */
+    private final transient File target;
+
+    /**
+     * Socket file of the instance.
+     */
+    private final transient File socket;
+
+    /**
+     * Was a new database created for the instance?
+     */
+    private final transient boolean fresh;
+
+    /**
+     * Latch released when the port and the socket file are released.
+     */
+    private final transient CountDownLatch closed;
+
+    /**
+     * The server, NULL while it boots or restarts.
+     */
+    private transient Server server;
+
+    /**
+     * Why the instance failed to boot, NULL if it didn't.
+     */
+    private transient Throwable failure;
+
+    /**
+     * How many starts share the instance, zero when it's stopped.
+     */
+    private transient int users;
+
+    /**
+     * Are the port and the socket file released?
+     */
+    private transient boolean gone;
+
+    /**
+     * Ctor.
+     * @param cfg Instance configuration
+     * @param dir Path to MySQL distribution
+     * @param home Where the instance keeps its data
+     * @param sock Socket file of the instance
+     * @param clean Was a new database created for the instance?
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    Handle(final Config cfg, final File dir, final File home,
+        final File sock, final boolean clean) {
+        this.config = cfg;
+        this.dist = dir;
+        this.target = home;
+        this.socket = sock;
+        this.fresh = clean;
+        this.closed = new CountDownLatch(1);
+        this.users = 1;
+    }
+
+    /**
+     * Get configuration of the instance.
+     * @return Configuration
+     */
+    public Config config() {
+        return this.config;
+    }
+
+    /**
+     * Get path to MySQL distribution.
+     * @return Directory
+     */
+    public File dist() {
+        return this.dist;
+    }
+
+    /**
+     * Get socket file of the instance.
+     * @return Socket file
+     */
+    public File socket() {
+        return this.socket;
+    }
+
+    /**
+     * Was a new database created for the instance?
+     * @return TRUE if so, FALSE if an existing one was reused
+     */
+    public boolean fresh() {
+        return this.fresh;
+    }
+
+    /**
+     * Can the instance be shared by a start with this configuration?
+     * @param cfg Configuration of the start
+     * @param dir Path to MySQL distribution
+     * @param home Where to keep data
+     * @param sock Socket file
+     * @return TRUE if it's the same, except the database, the user and
+     *  their password
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    public boolean matches(final Config cfg, final File dir,
+        final File home, final File sock) {
+        return (cfg.port() == Instances.AUTO
+            || cfg.port() == this.config.port())
+            && this.dist.getAbsoluteFile().equals(dir.getAbsoluteFile())
+            && this.target.getAbsoluteFile().equals(home.getAbsoluteFile())
+            && this.socket.getAbsoluteFile().equals(sock.getAbsoluteFile())
+            && cfg.withDatabase(
+                this.config.port(), this.config.user(),
+                this.config.password(), this.config.dbname(), cfg.options()
+            ).equals(this.config);
+    }
+
+    /**
+     * The instance booted, or restarted.
+     * @param srv The server
+     */
+    public synchronized void boot(final Server srv) {
+        this.server = srv;
+        this.notifyAll();
+    }
+
+    /**
+     * The instance failed to boot.
+     * @param error Why
+     */
+    public synchronized void fail(final Throwable error) {
+        this.failure = error;
+        this.users = 0;
+        this.notifyAll();
+    }
+
+    /**
+     * Wait until the instance boots, or restarts, if it's taken away
+     * for that, see {@link #take()}.
+     * @return The server, or NULL if the instance is stopped meanwhile
+     * @throws IOException If it fails to boot
+     */
+    public synchronized Server await() throws IOException {
+        try {
+            while (this.server == null && this.failure == null
+                && !this.gone) {
+                this.wait();
+            }
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(ex);
+        }
+        if (this.failure != null) {
+            throw new IOException(
+                String.format(
+                    "MySQL at the %d port failed to start",
+                    this.config.port()
+                ),
+                this.failure
+            );
+        }
+        return this.server;
+    }
+
+    /**
+     * Get the server.
+     * @return The server, NULL while it boots or restarts
+     */
+    public synchronized Server server() {
+        return this.server;
+    }
+
+    /**
+     * Take the server away, to restart it.
+     * @return The server, NULL if it's not running
+     */
+    public synchronized Server take() {
+        final Server srv = this.server;
+        this.server = null;
+        return srv;
+    }
+
+    /**
+     * Share the instance with one more start.
+     * @return TRUE if shared, FALSE if it's stopped or failed already
+     */
+    public synchronized boolean acquire() {
+        final boolean alive = this.users > 0;
+        if (alive) {
+            ++this.users;
+        }
+        return alive;
+    }
+
+    /**
+     * Is it still used by any start?
+     * @return TRUE if so, FALSE if it's stopping or failed already
+     */
+    public synchronized boolean alive() {
+        return this.users > 0;
+    }
+
+    /**
+     * The port and the socket file of the instance are released.
+     */
+    public synchronized void close() {
+        this.gone = true;
+        this.closed.countDown();
+        this.notifyAll();
+    }
+
+    /**
+     * Wait until the port and the socket file of the instance are
+     * released.
+     */
+    public void waitClosed() {
+        try {
+            this.closed.await();
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    /**
+     * Release one start of the instance.
+     * @return TRUE if it was the last one, and the instance must stop
+     */
+    public synchronized boolean release() {
+        if (this.users > 0) {
+            --this.users;
+        }
+        return this.users == 0;
+    }
+
+}
@@ -0,0 +1,107 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2012-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.mysql.maven.plugin;
+
+import java.util.ArrayList;
+import java.util.List;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * Definition of one MySQL instance, when many of them are started.
+ *
+ * <p>This is an item of the {@code instances} parameter of the plugin,
+ * populated by Maven, for example:
+ *
+ * <pre> &lt;instances&gt;
+ *   &lt;instance&gt;
+ *     &lt;port&gt;3307&lt;/port&gt;
+ *     &lt;dbname&gt;orders&lt;/dbname&gt;
+ *   &lt;/instance&gt;
+ *   &lt;instance&gt;
+ *     &lt;port&gt;3308&lt;/port&gt;
+ *     &lt;user&gt;jeff&lt;/user&gt;
+ *     &lt;password&gt;secret&lt;/password&gt;
+ *     &lt;options&gt;
+ *       &lt;option&gt;sql-mode=ALLOW_INVALID_DATES&lt;/option&gt;
+ *     &lt;/options&gt;
+ *   &lt;/instance&gt;
+ * &lt;/instances&gt;</pre>
+ *
+ * <p>Everything except the port is optional, plugin-level values are
+ * used when absent. Options are added to plugin-level options.
+ *
+ * @since 1.0
+ */
+@ToString
+@EqualsAndHashCode
+public final class Instance {
+
+    /**
+     * TCP port.
+     */
+    private transient int port;
+
+    /**
+     * Database name.
+     */
+    private transient String dbname;
+
+    /**
+     * User name.
+     */
+    private transient String user;
+
+    /**
+     * Password.
+     */
+    private transient String password;
+
+    /**
+     * Configuration options.
+     */
+    private transient List<String> options;
+
+    /**
+     * Make configuration of this instance.
+     * @param base Plugin-level configuration
+     * @return Configuration
+     */
+    public Config config(final Config base) {
+        if (this.port <= 0) {
+            throw new IllegalArgumentException(
+                String.format("Port is not set for the instance %s", this)
+            );
+        }
+        final List<String> opts = new ArrayList<>(base.options());
+        if (this.options != null) {
+            opts.addAll(this.options);
+        }
+        return base.withDatabase(
+            this.port,
+            Instance.or(this.user, base.user()),
+            Instance.or(this.password, base.password()),
+            Instance.or(this.dbname, base.dbname()),
+            opts
+        );
+    }
+
+    /**
+     * Value or default, if it's absent.
+     * @param value The value
+     * @param def Default
+     * @return One of them
+     */
+    private static String or(final String value, final String def) {
+        final String result;
+        if (value == null) {
+            result = def;
+        } else {
+            result = value;
+        }
+        return result;
+    }
+
+}
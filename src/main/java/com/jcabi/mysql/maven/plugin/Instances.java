@@ -8,25 +8,39 @@ import com.jcabi.aspects.Loggable;
 import com.jcabi.log.Logger;
 import com.jcabi.log.VerboseProcess;
 import com.jcabi.log.VerboseRunnable;
+import com.jcabi.log.VerboseThreads;
+import java.io.BufferedReader;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
+import java.net.BindException;
+import java.net.ServerSocket;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
-import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
-import java.util.concurrent.Callable;
+import java.util.Locale;
+import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
 import javax.validation.constraints.NotNull;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
 import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
 
 /**
@@ -38,7 +52,7 @@ import org.apache.commons.lang3.StringUtils;
  * @since 0.1
  */
 @ToString
-@EqualsAndHashCode(of = "processes")
+@EqualsAndHashCode(of = "handles")
 @Loggable(Loggable.INFO)
 @SuppressWarnings({ "PMD.DoNotUseThreads", "PMD.TooManyMethods" })
 public final class Instances {
@@ -51,7 +65,22 @@ public final class Instances {
     /**
      * No defaults.
      */
-    private static final String NO_DEFAULTS = "--no-defaults";
+    static final String NO_DEFAULTS = "--no-defaults";
+
+    /**
+     * How many statements to show in every list of the slow log digest.
+     */
+    private static final int TOP = 10;
+
+    /**
+     * How long to wait for a graceful stop, in milliseconds.
+     */
+    private static final long BUDGET = TimeUnit.SECONDS.toMillis(30L);
+
+    /**
+     * Port that means "choose a free one".
+     */
+    static final int AUTO = 0;
 
     /**
      * Default retry count.
@@ -61,121 +90,690 @@ public final class Instances {
     /**
      * Default user.
      */
-    private static final String DEFAULT_USER = "root";
+    static final String DEFAULT_USER = "root";
 
     /**
      * Default password.
      */
-    private static final String DEFAULT_PASSWORD = "root";
+    static final String DEFAULT_PASSWORD = "root";
 
     /**
      * Default host.
      */
     @SuppressWarnings("PMD.AvoidUsingHardCodedIP")
-    private static final String DEFAULT_HOST = "127.0.0.1";
+    static final String DEFAULT_HOST = "127.0.0.1";
+
+    /**
+     * Handles of booting and running instances, by port.
+     */
+    private final transient ConcurrentMap<Integer, Handle> handles =
+        new ConcurrentHashMap<>(0);
+
+    /**
+     * Handles of booting and running instances, by socket file.
+     */
+    private final transient ConcurrentMap<File, Handle> sockets =
+        new ConcurrentHashMap<>(0);
+
+    /**
+     * RAM-backed directories of ephemeral instances, by port.
+     */
+    private final transient ConcurrentMap<Integer, File> ephemerals =
+        new ConcurrentHashMap<>(0);
 
     /**
-     * Running processes.
+     * Timelines of the latest starts, by port.
      */
-    private final transient ConcurrentMap<Integer, Process> processes =
+    private final transient ConcurrentMap<Integer, Timeline> timelines =
         new ConcurrentHashMap<>(0);
 
     /**
-     * If true, always create a new database. If false, check if there is an
-     * existing database at the target location and try to use that if
-     * possible, otherwise create a new one anyway.
+     * Samplers of status of running instances, by port.
      */
-    private transient boolean clean = true;
+    private final transient ConcurrentMap<Integer, Sampler> samplers =
+        new ConcurrentHashMap<>(0);
+
+    /**
+     * Pump of output of all processes into the log.
+     */
+    private final transient Pump pump = new Pump();
+
+    /**
+     * Is the shutdown hook registered?
+     */
+    private final transient AtomicBoolean hooked = new AtomicBoolean();
 
     /**
      * Start a new one at this port.
+     *
+     * <p>If the port is {@link #AUTO}, a free port is chosen, and when
+     * someone else takes it before the server binds it, the server is
+     * started again at another free port, up to five times. A taken port
+     * is noticed in the output of the server, see {@link Readiness}, so
+     * it fails right away, not after the timeout.
+     *
+     * <p>If an instance with the same configuration, distribution and
+     * data directory is already running, or booting, like when many
+     * modules of a reactor start it, it's shared: no new server is
+     * started, but the database and the user of the configuration are
+     * created there, if they differ. Every start of it must be paired
+     * with {@link #stop(int)}, and only the last one stops the server.
+     *
+     * <p>Only the claim of the port and the socket file is atomic, see
+     * {@link Handle}, so that instances at different ports boot
+     * concurrently.
      * @param config Instance configuration
      * @param dist Path to MySQL distribution
      * @param target Where to keep temp data
      * @param deldir If existing DB should be deleted
      * @param socket Alternative socket location for mysql (may be null)
+     * @return Configuration of the started instance, with its actual port
      * @throws IOException If fails to start
      * @checkstyle ParameterNumberCheck (10 lines)
      */
-    public void start(@NotNull final Config config, @NotNull final File dist,
+    public Config start(@NotNull final Config config, @NotNull final File dist,
         @NotNull final File target, final boolean deldir, final File socket)
         throws IOException {
-        this.setClean(target, deldir);
-        synchronized (this.processes) {
-            if (this.processes.containsKey(config.port())) {
+        Config started = null;
+        while (started == null) {
+            started = this.share(config, dist, target, socket);
+            if (started == null) {
+                started = this.boot(config, dist, target, deldir, socket);
+            }
+        }
+        return started;
+    }
+
+    /**
+     * Share the booting or running instance, if there is one with
+     * the same configuration, except the database, the user and their
+     * password, and wait until it boots.
+     * @param config Instance configuration
+     * @param dist Path to MySQL distribution
+     * @param target Where to keep temp data
+     * @param socket Alternative socket location for mysql (may be null)
+     * @return Configuration of the shared instance, or NULL if there is
+     *  no such instance, or it stopped while the start was waiting for it
+     * @throws IOException If it fails to boot or to create the database
+     * @checkstyle ParameterNumberCheck (10 lines)
+     */
+    private Config share(final Config config, final File dist,
+        final File target, final File socket) throws IOException {
+        final File file = Instances.socket(target, socket);
+        Handle found = null;
+        for (final Handle handle : this.handles.values()) {
+            if (found == null && handle.matches(config, dist, target, file)
+                && handle.acquire()) {
+                found = handle;
+            }
+        }
+        Config shared = null;
+        if (found != null) {
+            final Server server = found.await();
+            if (server != null) {
+                shared = config.withPort(found.config().port());
+                if (!shared.equals(found.config())) {
+                    server.client().execute(Instances.bootstrap(shared, dist));
+                }
+                Logger.info(
+                    this,
+                    "MySQL at the %d port is shared, with the '%s' database",
+                    shared.port(), shared.dbname()
+                );
+            }
+        }
+        return shared;
+    }
+
+    /**
+     * Boot a new instance, at another free port when the one chosen for
+     * {@link #AUTO} is taken.
+     * @param config Instance configuration
+     * @param dist Path to MySQL distribution
+     * @param target Where to keep temp data
+     * @param deldir If existing DB should be deleted
+     * @param socket Alternative socket location for mysql (may be null)
+     * @return Configuration of the started instance, or NULL if another
+     *  start claimed the same instance first, and it has to be shared;
+     *  if that instance is stopping, its port is awaited
+     * @throws IOException If fails to start
+     * @checkstyle ParameterNumberCheck (10 lines)
+     */
+    private Config boot(final Config config, final File dist,
+        final File target, final boolean deldir, final File socket)
+        throws IOException {
+        final boolean fresh = this.fresh(target, deldir);
+        Config started = null;
+        boolean lost = false;
+        int attempt = 0;
+        while (started == null && !lost) {
+            Config cfg = config;
+            if (config.port() == Instances.AUTO) {
+                cfg = config.withPort(Instances.free());
+            }
+            try {
+                final Handle rival = this.launch(
+                    new Handle(
+                        cfg, dist, target, Instances.socket(target, socket),
+                        fresh
+                    ),
+                    target, socket, deldir
+                );
+                if (rival == null) {
+                    started = cfg;
+                } else if (!rival.matches(
+                    config, dist, target, Instances.socket(target, socket)
+                )) {
+                    throw new IllegalArgumentException(
+                        String.format(
+                            "Port %d is already busy, or its socket %s",
+                            cfg.port(), rival.socket()
+                        )
+                    );
+                } else if (rival.alive()) {
+                    lost = true;
+                } else {
+                    rival.waitClosed();
+                }
+            } catch (final BindException ex) {
+                ++attempt;
+                if (config.port() != Instances.AUTO
+                    || attempt >= Instances.RETRY_COUNT) {
+                    throw ex;
+                }
+                Logger.warn(this, "%s, trying another one", ex.getMessage());
+            }
+        }
+        return started;
+    }
+
+    /**
+     * Claim the port and the socket file of a new instance, start its
+     * process and register it.
+     *
+     * <p>Nothing is locked while the process boots, except the handle.
+     * @param handle Handle of the instance
+     * @param target Where to keep temp data
+     * @param socket Alternative socket location for mysql (may be null)
+     * @param deldir If the database is deleted on next start
+     * @return NULL if started, or the handle, which claimed the port or
+     *  the socket file first
+     * @throws IOException If fails to start
+     */
+    private Handle launch(final Handle handle, final File target,
+        final File socket, final boolean deldir) throws IOException {
+        final Handle rival = this.claim(handle);
+        if (rival == null) {
+            try {
+                this.register(
+                    handle,
+                    this.process(
+                        handle.config(), handle.dist(), target, socket,
+                        handle.fresh(), deldir
+                    )
+                );
+            } catch (final IOException ex) {
+                handle.fail(ex);
+                this.forget(handle);
+                throw ex;
+            }
+        }
+        return rival;
+    }
+
+    /**
+     * Start many instances in parallel.
+     *
+     * <p>Every instance keeps its data in a sub-directory of the root,
+     * named by its port. All of them boot at the same time, so the total
+     * time is close to the time of the slowest one. If any of them fails,
+     * the others are stopped.
+     * @param configs Configurations of instances
+     * @param dist Path to MySQL distribution
+     * @param root Where to keep their data
+     * @param deldir If existing DBs should be deleted
+     * @throws IOException If fails to start any of them
+     * @since 1.0
+     */
+    public void start(@NotNull final Collection<Config> configs,
+        @NotNull final File dist, @NotNull final File root,
+        final boolean deldir) throws IOException {
+        final Collection<Handle> claimed = new LinkedList<>();
+        for (final Config config : configs) {
+            final File target = Instances.target(root, config);
+            final Handle handle = new Handle(
+                config, dist, target, Instances.socket(target, null),
+                this.fresh(target, deldir)
+            );
+            if (this.claim(handle) != null) {
+                for (final Handle done : claimed) {
+                    this.forget(done);
+                }
                 throw new IllegalArgumentException(
                     String.format("Port %d is already busy", config.port())
                 );
             }
-            final Process proc = this.process(config, dist, target, socket);
-            this.processes.put(config.port(), proc);
-            Runtime.getRuntime().addShutdownHook(
-                new Thread(() -> this.stop(config.port()))
-            );
+            claimed.add(handle);
         }
-        Logger.info(
-            this,
-            "MySQL database is up and running at the %d port",
-            config.port()
+        final ExecutorService service = Executors.newFixedThreadPool(
+            Math.max(1, configs.size()), new VerboseThreads(this)
         );
+        try {
+            final Map<Handle, Future<Server>> futures = new LinkedHashMap<>(0);
+            for (final Handle handle : claimed) {
+                futures.put(
+                    handle,
+                    service.submit(
+                        () -> this.process(
+                            handle.config(), dist,
+                            Instances.target(root, handle.config()), null,
+                            handle.fresh(), deldir
+                        )
+                    )
+                );
+            }
+            this.collect(futures);
+        } finally {
+            service.shutdownNow();
+        }
     }
 
     /**
-     * Stop a running one at this port.
+     * Where an instance keeps its data, when many of them are started.
+     * @param root Root directory of all instances
+     * @param config Instance configuration
+     * @return Directory of this instance
+     * @since 1.0
+     */
+    public static File target(final File root, final Config config) {
+        return new File(root, Integer.toString(config.port()));
+    }
+
+    /**
+     * Stop a running one at this port and wait until it exits.
+     *
+     * <p>The server is asked to shut down gracefully, see {@link Server}.
+     * Data of an ephemeral instance is deleted right after that. If its
+     * status was sampled, the samples are saved before, see
+     * {@link Sampler}. If slow queries were logged, the digest of the
+     * slow log is saved after, see {@link SlowLog}.
      * @param port The port to stop at
      */
     public void stop(final int port) {
-        synchronized (this.processes) {
-            final Process proc = this.processes.remove(port);
-            if (proc != null) {
-                proc.destroy();
+        final Handle handle = this.handles.get(port);
+        if (handle == null || handle.release()) {
+            this.terminate(port);
+        } else {
+            Logger.info(
+                this, "MySQL at the %d port is still shared, not stopped", port
+            );
+        }
+    }
+
+    /**
+     * Stop all running instances in parallel and wait until they exit.
+     * @since 1.0
+     */
+    public void stopAll() {
+        final ExecutorService service = Executors.newCachedThreadPool(
+            new VerboseThreads(this)
+        );
+        for (final int port : this.handles.keySet()) {
+            service.submit(
+                new VerboseRunnable(() -> this.terminate(port), true)
+            );
+        }
+        service.shutdown();
+        try {
+            if (!service.awaitTermination(
+                Instances.BUDGET * 2L, TimeUnit.MILLISECONDS
+            )) {
+                Logger.warn(this, "Some instances didn't stop in time");
             }
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    /**
+     * Copy the database of a running instance into sibling databases
+     * in the same instance, see {@link Tablespaces}.
+     * @param port Port of the instance
+     * @param names Names of the copies
+     * @throws IOException If fails
+     * @since 1.0
+     */
+    public void clone(final int port, final Collection<String> names)
+        throws IOException {
+        final Server server = this.running(port);
+        new Tablespaces(server.client(), server.data())
+            .copy(server.config(), names);
+    }
+
+    /**
+     * Make a client of a running instance.
+     * @param port Port of the instance
+     * @return Client
+     * @since 1.0
+     */
+    Client client(final int port) {
+        return this.running(port).client();
+    }
+
+    /**
+     * Get socket file of a running instance.
+     * @param port Port of the instance
+     * @return Socket file
+     * @since 1.0
+     */
+    File socket(final int port) {
+        return this.running(port).socket();
+    }
+
+    /**
+     * Stop the instance, save its data directory into the checkpoint,
+     * and start it again.
+     *
+     * <p>The instance is stopped with a slow shutdown, so that the
+     * checkpoint doesn't need crash recovery on every restore.
+     * @param port Port of the instance
+     * @param dir Directory of the checkpoint
+     * @throws IOException If fails
+     * @since 1.0
+     */
+    public void snapshot(final int port, final File dir) throws IOException {
+        final Server server = this.halt(port);
+        try {
+            new Checkpoint(dir).save(server.data());
+        } finally {
+            this.relaunch(port, server);
         }
     }
 
     /**
-     * Returns if a clean database had to be created. Note that this must be
-     * called after {@link Instances#start(Config, File, File, boolean)}.
+     * Stop the instance, restore its data directory from the checkpoint,
+     * and start it again.
+     * @param port Port of the instance
+     * @param dir Directory of the checkpoint
+     * @throws IOException If fails
+     * @since 1.0
+     */
+    public void restore(final int port, final File dir) throws IOException {
+        final Server server = this.halt(port);
+        try {
+            new Checkpoint(dir).restore(server.data());
+        } finally {
+            this.relaunch(port, server);
+        }
+    }
+
+    /**
+     * Timeline of the latest start of the instance, see {@link Timeline}.
+     * @param port Port of the instance
+     * @return Timeline or NULL if it was never started
+     * @since 1.0
+     */
+    Timeline timeline(final int port) {
+        return this.timelines.get(port);
+    }
+
+    /**
+     * Returns if the instance reused an existing database, instead of
+     * creating a clean one. Note that this must be called after
+     * {@link Instances#start(Config, File, File, boolean, File)}, and
+     * before {@link #stop(int)}.
+     * @param port Port of the instance
      * @return If this is a clean database or could have been reused
      */
-    public boolean reusedExistingDatabase() {
-        return !this.clean;
+    public boolean reusedExistingDatabase(final int port) {
+        final Handle handle = this.handles.get(port);
+        return handle != null && !handle.fresh();
+    }
+
+    /**
+     * Claim the port and the socket file of a new instance.
+     *
+     * <p>Either both are claimed by the handle, or none of them.
+     * @param handle Handle of the instance
+     * @return NULL if claimed, or the handle, which claimed the port or
+     *  the socket file first
+     */
+    private Handle claim(final Handle handle) {
+        final int port = handle.config().port();
+        Handle rival = this.handles.putIfAbsent(port, handle);
+        if (rival == null) {
+            rival = this.sockets.putIfAbsent(
+                handle.socket().getAbsoluteFile(), handle
+            );
+            if (rival != null) {
+                this.handles.remove(port, handle);
+            }
+        }
+        return rival;
+    }
+
+    /**
+     * Forget the instance, releasing its port and socket file, and
+     * deleting its ephemeral data, if any.
+     * @param handle Handle of the instance
+     */
+    private void forget(final Handle handle) {
+        final int port = handle.config().port();
+        this.handles.remove(port, handle);
+        this.sockets.remove(handle.socket().getAbsoluteFile(), handle);
+        this.discard(port);
+        handle.close();
+    }
+
+    /**
+     * Stop it for sure, no matter how many starts share it.
+     * @param port The port to stop at
+     */
+    private void terminate(final int port) {
+        final Sampler sampler = this.samplers.remove(port);
+        if (sampler != null) {
+            try {
+                sampler.close();
+            } catch (final IOException ex) {
+                Logger.warn(
+                    this, "Failed to save status of MySQL at %d port: %s",
+                    port, ex.getMessage()
+                );
+            }
+        }
+        final Handle handle = this.handles.get(port);
+        if (handle == null) {
+            this.discard(port);
+        } else {
+            final Server server = handle.take();
+            if (server != null) {
+                server.shutdown(Instances.BUDGET);
+                Instances.digest(server);
+            }
+            this.forget(handle);
+        }
+    }
+
+    /**
+     * Find a running instance.
+     * @param port Port of the instance
+     * @return The server
+     */
+    private Server running(final int port) {
+        final Handle handle = this.handles.get(port);
+        Server server = null;
+        if (handle != null) {
+            server = handle.server();
+        }
+        if (server == null) {
+            throw new IllegalArgumentException(
+                String.format("No MySQL is running at the %d port", port)
+            );
+        }
+        return server;
+    }
+
+    /**
+     * Stop the instance, keeping its port claimed and its data intact.
+     * @param port Port of the instance
+     * @return The server stopped
+     */
+    private Server halt(final int port) {
+        final Handle handle = this.handles.get(port);
+        Server server = null;
+        if (handle != null) {
+            server = handle.take();
+        }
+        if (server == null) {
+            throw new IllegalArgumentException(
+                String.format("No MySQL is running at the %d port", port)
+            );
+        }
+        server.shutdown(Instances.BUDGET, false);
+        return server;
+    }
+
+    /**
+     * Start the stopped instance again, with the same data.
+     * @param port Port of the instance
+     * @param server The server stopped by {@link #halt(int)}
+     * @throws IOException If fails
+     */
+    private void relaunch(final int port, final Server server)
+        throws IOException {
+        final Handle handle = this.handles.get(port);
+        try {
+            this.register(
+                handle,
+                this.process(
+                    server.config(), server.dist(), server.target(),
+                    server.socket(), false, server.disposable()
+                )
+            );
+        } catch (final IOException ex) {
+            handle.fail(ex);
+            this.forget(handle);
+            throw ex;
+        }
+    }
+
+    /**
+     * Register a running server.
+     *
+     * <p>The first one registers a shutdown hook, which stops all of them
+     * in parallel when JVM exits. Sampling of its status starts here, if
+     * configured, and goes on when it's restarted.
+     * @param handle Handle of the instance
+     * @param server The server
+     */
+    private void register(final Handle handle, final Server server) {
+        final int port = server.config().port();
+        handle.boot(server);
+        if (server.config().sampling() > 0L) {
+            this.samplers.computeIfAbsent(
+                port,
+                key -> {
+                    final Sampler sampler = new Sampler(
+                        server.client(), port,
+                        new File(server.target(), "mysql-status.txt")
+                    );
+                    sampler.start(server.config().sampling());
+                    return sampler;
+                }
+            );
+        }
+        if (this.hooked.compareAndSet(false, true)) {
+            Runtime.getRuntime().addShutdownHook(new Thread(this::stopAll));
+        }
+        Logger.info(
+            this,
+            "MySQL database is up and running at the %d port",
+            port
+        );
+    }
+
+    /**
+     * Wait for booting processes and register them, or stop all of
+     * them if any one fails.
+     * @param futures Booting processes, by their handles
+     * @throws IOException If any of them fails
+     */
+    private void collect(final Map<Handle, Future<Server>> futures)
+        throws IOException {
+        IOException failure = null;
+        final Collection<Integer> started = new LinkedList<>();
+        for (final Map.Entry<Handle, Future<Server>> entry
+            : futures.entrySet()) {
+            final int port = entry.getKey().config().port();
+            try {
+                this.register(entry.getKey(), entry.getValue().get());
+                started.add(port);
+            } catch (final InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(ex);
+            } catch (final ExecutionException ex) {
+                entry.getKey().fail(ex.getCause());
+                this.forget(entry.getKey());
+                if (failure == null) {
+                    failure = new IOException(
+                        String.format(
+                            "Failed to start MySQL at the %d port", port
+                        ),
+                        ex.getCause()
+                    );
+                }
+            }
+        }
+        if (failure != null) {
+            for (final int port : started) {
+                this.stop(port);
+            }
+            throw failure;
+        }
     }
 
     /**
      * Start a new process.
+     *
+     * <p>Every phase is measured, and the output of the process goes to
+     * its {@link Timeline} too, which finds boot milestones there. When
+     * the server listens only on its socket file, networking is turned
+     * off and readiness is checked only through the socket.
      * @param config Instance configuration
      * @param dist Path to MySQL distribution
      * @param target Where to keep temp data
      * @param socketfile Alternative socket location for mysql (may be null)
-     * @return Process started
+     * @param fresh If a new database has to be created
+     * @param deldir If the database is deleted on next start
+     * @return Server started
      * @throws IOException If fails to start
      * @checkstyle ParameterNumberCheck (10 lines)
      */
-    private Process process(@NotNull final Config config,
-        final File dist, final File target, final File socketfile)
-        throws IOException {
-        final File temp = this.prepareFolders(target);
-        final File socket;
-        if (socketfile == null) {
-            socket = new File(target, "mysql.sock");
-        } else {
-            socket = socketfile;
-        }
-        final ProcessBuilder builder = this.builder(
+    private Server process(@NotNull final Config config,
+        final File dist, final File target, final File socketfile,
+        final boolean fresh, final boolean deldir) throws IOException {
+        final Timeline timeline = new Timeline();
+        this.timelines.put(config.port(), timeline);
+        final long begin = System.currentTimeMillis();
+        final File home = this.home(config, target);
+        final File temp = timeline.measure(
+            "delete", () -> this.prepareFolders(target, home, fresh)
+        );
+        final File socket = Instances.socket(target, socketfile);
+        final File datadir = timeline.measure(
+            "data", () -> this.data(config, dist, home, target)
+        );
+        final ProcessBuilder builder = Instances.builder(
             dist,
             "bin/mysqld",
             Instances.NO_DEFAULTS,
             String.format("--user=%s", System.getProperty("user.name")),
-            "--general_log",
             "--console",
-            "--innodb_buffer_pool_size=64M",
-            "--innodb_log_file_size=64M",
-            "--innodb_use_native_aio=0",
             String.format("--binlog-ignore-db=%s", config.dbname()),
             String.format("--basedir=%s", dist),
             String.format("--lc-messages-dir=%s", new File(dist, "share")),
-            String.format("--datadir=%s", this.data(dist, target)),
+            String.format("--datadir=%s", datadir),
             String.format("--tmpdir=%s", temp),
             String.format("--socket=%s", socket),
             String.format("--log-error=%s", new File(target, "errors.log")),
@@ -184,44 +782,276 @@ public final class Instances {
             String.format("--port=%d", config.port())
         ).redirectErrorStream(true);
         builder.environment().put("MYSQL_HOME", dist.getAbsolutePath());
+        for (final String option
+            : config.profile().options(config.options())) {
+            builder.command().add(String.format("--%s", option));
+        }
+        if (config.slowlog() >= 0.0d) {
+            builder.command().addAll(
+                Arrays.asList(
+                    "--slow_query_log=ON",
+                    String.format(
+                        "--slow_query_log_file=%s",
+                        new File(target, "mysql-slow.log")
+                    ),
+                    String.format(
+                        Locale.ENGLISH, "--long_query_time=%f", config.slowlog()
+                    )
+                )
+            );
+        }
+        if (config.socketOnly()) {
+            builder.command().add("--skip-networking");
+        }
+        if (config.ephemeral() != null) {
+            builder.command().addAll(
+                Arrays.asList(
+                    "--innodb_flush_log_at_trx_commit=0",
+                    "--innodb_doublewrite=OFF",
+                    "--sync_binlog=0",
+                    "--skip-log-bin"
+                )
+            );
+        }
+        final boolean boot = fresh && !Instances.legacy(dist);
+        if (boot) {
+            builder.command().add(
+                String.format(
+                    "--init-file=%s",
+                    new Bootstrap(config).save(new File(target, "init.sql"))
+                )
+            );
+        }
         for (final String option : config.options()) {
             if (!StringUtils.isBlank(option)) {
                 builder.command().add(String.format("--%s", option));
             }
         }
-        final Process proc = builder.start();
-        final Thread thread = new Thread(
-            new VerboseRunnable(
-                (Callable<Void>) () -> {
-                    new VerboseProcess(proc).stdoutQuietly();
-                    return null;
-                }
-            )
+        final File out = new File(target, "mysql.out");
+        final long offset = out.length();
+        if (config.redirected()) {
+            builder.redirectOutput(ProcessBuilder.Redirect.appendTo(out));
+            Logger.info(this, "Output of MySQL goes to %s", out);
+        }
+        final Process proc = timeline.measure("spawn", builder::start);
+        final Readiness readiness = new Readiness(
+            TimeUnit.MINUTES.toMillis(5L), config.probe()
         );
-        thread.setDaemon(true);
-        thread.start();
-        this.waitFor(socket, config.port());
-        if (this.clean) {
+        if (!config.redirected()) {
+            this.pump.attach(
+                proc.getInputStream(), config.port(), config.verbosity(),
+                readiness.andThen(timeline)
+            );
+        }
+        final long spawned = System.currentTimeMillis();
+        try {
+            if (config.socketOnly()) {
+                readiness.await(proc, socket, Instances.AUTO);
+            } else {
+                readiness.await(proc, socket, config.port());
+            }
+        } catch (final IOException ex) {
+            proc.destroyForcibly();
+            if (config.redirected()) {
+                Instances.replay(out, offset, readiness);
+                readiness.check(config.port());
+            }
+            throw ex;
+        } finally {
+            timeline.record("readiness", spawned);
+        }
+        timeline.read(new File(target, "errors.log"));
+        if (config.redirected()) {
+            timeline.read(new File(target, "mysql.out"));
+        }
+        if (boot) {
+            Logger.info(
+                this,
+                "The '%s' user created in the '%s' database with the '%s' password at boot",
+                config.user(), config.dbname(), config.password()
+            );
+        } else if (fresh) {
+            final long ready = System.currentTimeMillis();
             this.configure(config, dist, socket);
+            timeline.record("configure", ready);
+        }
+        timeline.record("total", begin);
+        return new Server(
+            proc, config, dist, socket, datadir, target,
+            deldir || config.ephemeral() != null
+        );
+    }
+
+    /**
+     * Save digest of the slow log of the stopped server, if it was
+     * logged, into {@code mysql-slow.txt}.
+     * @param server The server
+     */
+    private static void digest(final Server server) {
+        final File log = new File(server.target(), "mysql-slow.log");
+        if (server.config().slowlog() >= 0.0d && log.exists()) {
+            try {
+                new SlowLog(log).report(
+                    new File(server.target(), "mysql-slow.txt"), Instances.TOP
+                );
+            } catch (final IOException ex) {
+                Logger.warn(
+                    Instances.class, "Failed to digest slow log %s: %s",
+                    log, ex.getMessage()
+                );
+            }
+        }
+    }
+
+    /**
+     * SQL, which creates the database and the user of the configuration
+     * on a running server.
+     * @param config Instance configuration
+     * @param dist Path to MySQL distribution
+     * @return SQL
+     */
+    private static String bootstrap(final Config config, final File dist) {
+        final String sql;
+        if (Instances.legacy(dist)) {
+            sql = new Bootstrap(config).legacy();
+        } else {
+            sql = new Bootstrap(config).sql();
+        }
+        return sql;
+    }
+
+    /**
+     * Host, which the user of the instance connects from.
+     * @param config Instance configuration
+     * @return Host, {@code localhost} if the server listens only on
+     *  its socket file
+     */
+    static String host(final Config config) {
+        final String host;
+        if (config.socketOnly()) {
+            host = "localhost";
+        } else {
+            host = Instances.DEFAULT_HOST;
+        }
+        return host;
+    }
+
+    /**
+     * Socket file of the instance.
+     * @param target Where the instance keeps its data
+     * @param socket Alternative socket location (may be null)
+     * @return Socket file
+     */
+    private static File socket(final File target, final File socket) {
+        final File file;
+        if (socket == null) {
+            file = new File(target, "mysql.sock");
+        } else {
+            file = socket;
+        }
+        return file;
+    }
+
+    /**
+     * Find a free port.
+     * @return Port
+     * @throws IOException If fails
+     */
+    static int free() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    /**
+     * Feed lines of the output file, which were written after the offset,
+     * to the listener.
+     * @param out Output file
+     * @param offset Its length before the process started
+     * @param listener The listener
+     * @throws IOException If fails
+     */
+    private static void replay(final File out, final long offset,
+        final Consumer<String> listener) throws IOException {
+        if (out.exists()) {
+            try (InputStream input = Files.newInputStream(out.toPath())) {
+                IOUtils.skipFully(input, offset);
+                final BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(input, StandardCharsets.UTF_8)
+                );
+                String line = reader.readLine();
+                while (line != null) {
+                    listener.accept(line);
+                    line = reader.readLine();
+                }
+            }
+        }
+    }
+
+    /**
+     * Where to keep data and temporary files of the instance.
+     *
+     * <p>For an ephemeral instance it's a new directory in RAM, which
+     * is deleted when the instance stops, or the existing one, when
+     * the instance is restarted. Redo log stays in the data directory,
+     * so it's in RAM too.
+     * @param config Instance configuration
+     * @param target Location of the database
+     * @return Directory
+     * @throws IOException If fails
+     */
+    private File home(final Config config, final File target)
+        throws IOException {
+        File home = this.ephemerals.get(config.port());
+        if (config.ephemeral() == null) {
+            home = target;
+        } else if (home == null) {
+            if (config.ephemeral().mkdirs()) {
+                Logger.info(this, "created %s directory", config.ephemeral());
+            }
+            home = Files.createTempDirectory(
+                config.ephemeral().toPath(),
+                String.format("jcabi-mysql-%d-", config.port())
+            ).toFile();
+            this.ephemerals.put(config.port(), home);
+            Logger.info(
+                this, "Ephemeral data of the instance at %d port is in %s",
+                config.port(), home
+            );
+        }
+        return home;
+    }
+
+    /**
+     * Delete RAM-backed directory of an ephemeral instance, if any.
+     * @param port Port of the instance
+     */
+    private void discard(final int port) {
+        final File home = this.ephemerals.remove(port);
+        if (home != null) {
+            FileUtils.deleteQuietly(home);
+            Logger.info(this, "Ephemeral data in %s deleted", home);
         }
-        return proc;
     }
 
     /**
      * Prepare the folder structure for the database if necessary.
      * @param target Location of the database
+     * @param home Where to keep data and temporary files
+     * @param fresh If a new database has to be created
      * @return The location of the temp directory
      * @throws IOException If fails to create temp directory
      */
-    private File prepareFolders(final File target) throws IOException {
-        if (this.clean && target.exists()) {
+    private File prepareFolders(final File target, final File home,
+        final boolean fresh) throws IOException {
+        if (fresh && target.exists()) {
             FileUtils.deleteDirectory(target);
             Logger.info(this, "deleted %s directory", target);
         }
         if (!target.exists() && target.mkdirs()) {
             Logger.info(this, "created %s directory", target);
         }
-        final File temp = new File(target, "temp");
+        final File temp = new File(home, "temp");
         if (!temp.exists() && !temp.mkdirs()) {
             throw new IllegalStateException(
                 "Error during temporary folder creation"
@@ -232,14 +1062,29 @@ public final class Instances {
 
     /**
      * Prepare and return data directory.
+     *
+     * <p>When the data directory is not in the target, like for
+     * ephemeral instances, but the target has one, for example made from
+     * a template, it's cloned from there.
+     * @param config Instance configuration
      * @param dist Path to MySQL distribution
-     * @param target Where to create it
+     * @param home Where to create it
+     * @param target Location of the database
      * @return Directory created
      * @throws IOException If fails
+     * @checkstyle ParameterNumberCheck (5 lines)
      */
-    private File data(final File dist, final File target) throws IOException {
-        final File dir = new File(target, Instances.DATA_SUB_DIR);
-        if (!dir.exists()) {
+    private File data(final Config config, final File dist, final File home,
+        final File target) throws IOException {
+        final File dir = new File(home, Instances.DATA_SUB_DIR);
+        final File seed = new File(target, Instances.DATA_SUB_DIR);
+        if (!dir.exists() && seed.exists()) {
+            if (!new Clone.Fastest().copy(seed.toPath(), dir.toPath())) {
+                throw new IOException(
+                    String.format("Failed to clone %s into %s", seed, dir)
+                );
+            }
+        } else if (!dir.exists()) {
             final File cnf = new File(
                 new File(dist, "share"),
                 "my-default.cnf"
@@ -249,86 +1094,80 @@ public final class Instances {
                 "[mysql]\n# no defaults...",
                 StandardCharsets.UTF_8
             );
-            final Path installer = Paths.get(dist.getAbsolutePath())
-                .resolve("scripts/mysql_install_db");
-            if (Files.exists(installer)) {
-                new VerboseProcess(
-                    this.builder(
-                        dist,
-                        "scripts/mysql_install_db",
-                        String.format("--defaults-file=%s", cnf),
-                        "--force",
-                        "--innodb_use_native_aio=0",
-                        String.format("--datadir=%s", dir),
-                        String.format("--basedir=%s", dist)
-                    )
-                ).stdout();
+            if (config.cache() == null) {
+                this.initialize(dist, dir, target);
             } else {
-                new VerboseProcess(
-                    this.builder(
-                        dist,
-                        "bin/mysqld",
-                        "--initialize-insecure",
-                        String.format("--user=%s", Instances.DEFAULT_USER),
-                        String.format("--datadir=%s", dir),
-                        String.format("--basedir=%s", dist),
-                        String.format("--log-error=%s", new File(target, "errors.log")),
-                        String.format("--general-log-file=%s", new File(target, "mysql.log"))
-                    )
-                ).stdout();
+                new DataCache(new File(config.cache(), "data")).populate(
+                    dist,
+                    Arrays.asList(
+                        Boolean.toString(Instances.legacy(dist)),
+                        Instances.DEFAULT_USER
+                    ),
+                    golden -> this.initialize(dist, golden, target),
+                    dir
+                );
             }
         }
         return dir;
     }
 
     /**
-     * Wait for this file to become available.
-     * @param socket The file to wait for
-     * @param port Port to wait for
-     * @return The same socket, but ready for usage
+     * Initialize a new data directory.
+     * @param dist Path to MySQL distribution
+     * @param dir Data directory to initialize
+     * @param target Where to keep logs
      * @throws IOException If fails
      */
-    private File waitFor(final File socket, final int port) throws IOException {
-        final long start = System.currentTimeMillis();
-        long age = 0L;
-        while (true) {
-            if (socket.exists()) {
-                Logger.info(
-                    this,
-                    "Socket %s is available after %[ms]s of waiting",
-                    socket, age
-                );
-                break;
-            }
-            if (SocketHelper.isOpen(port)) {
-                Logger.info(
-                    this,
-                    "Port %s is available after %[ms]s of waiting",
-                    port, age
-                );
-                break;
-            }
-            try {
-                TimeUnit.SECONDS.sleep(1L);
-            } catch (final InterruptedException ex) {
-                Thread.currentThread().interrupt();
-                throw new IllegalStateException(ex);
-            }
-            age = System.currentTimeMillis() - start;
-            if (age > TimeUnit.MINUTES.toMillis((long) 5)) {
-                throw new IOException(
-                    Logger.format(
-                        "Socket %s is not available after %[ms]s of waiting",
-                        socket, age
-                    )
-                );
-            }
+    void initialize(final File dist, final File dir,
+        final File target) throws IOException {
+        if (Instances.legacy(dist)) {
+            new VerboseProcess(
+                Instances.builder(
+                    dist,
+                    "scripts/mysql_install_db",
+                    String.format(
+                        "--defaults-file=%s",
+                        new File(new File(dist, "share"), "my-default.cnf")
+                    ),
+                    "--force",
+                    "--innodb_use_native_aio=0",
+                    String.format("--datadir=%s", dir),
+                    String.format("--basedir=%s", dist)
+                )
+            ).stdout();
+        } else {
+            new VerboseProcess(
+                Instances.builder(
+                    dist,
+                    "bin/mysqld",
+                    "--initialize-insecure",
+                    String.format("--user=%s", Instances.DEFAULT_USER),
+                    String.format("--datadir=%s", dir),
+                    String.format("--basedir=%s", dist),
+                    String.format("--log-error=%s", new File(target, "errors.log")),
+                    String.format("--general-log-file=%s", new File(target, "mysql.log"))
+                )
+            ).stdout();
         }
-        return socket;
     }
 
     /**
-     * Configure the running MySQL server.
+     * Is it a legacy distribution, with {@code scripts/mysql_install_db}
+     * instead of {@code mysqld --initialize-insecure}.
+     * @param dist Path to MySQL distribution
+     * @return TRUE if legacy
+     */
+    private static boolean legacy(final File dist) {
+        return Files.exists(
+            Paths.get(dist.getAbsolutePath()).resolve("scripts/mysql_install_db")
+        );
+    }
+
+    /**
+     * Configure the running MySQL server with client processes.
+     *
+     * <p>Used only for legacy distributions, which don't understand
+     * the SQL of {@link Bootstrap}.
      * @param config Instance configuration
      * @param dist Directory with MySQL distribution
      * @param socket Socket of it
@@ -338,7 +1177,7 @@ public final class Instances {
         final File dist, final File socket)
         throws IOException {
         new VerboseProcess(
-            this.builder(
+            Instances.builder(
                 dist,
                 "bin/mysqladmin",
                 Instances.NO_DEFAULTS,
@@ -346,7 +1185,7 @@ public final class Instances {
                 String.format("--port=%d", config.port()),
                 String.format("--user=%s", Instances.DEFAULT_USER),
                 String.format("--socket=%s", socket),
-                String.format("--host=%s", Instances.DEFAULT_HOST),
+                String.format("--host=%s", Instances.host(config)),
                 "password",
                 Instances.DEFAULT_PASSWORD
             )
@@ -358,7 +1197,7 @@ public final class Instances {
             Instances.DEFAULT_USER
         );
         final Process process =
-            this.builder(
+            Instances.builder(
                 dist,
                 "bin/mysql",
                 String.format("--port=%d", config.port()),
@@ -380,7 +1219,7 @@ public final class Instances {
                 String.format(
                     "CREATE USER '%s'@'%s' IDENTIFIED BY '%s';",
                     config.user(),
-                    Instances.DEFAULT_HOST,
+                    Instances.host(config),
                     config.password()
                 )
             );
@@ -389,7 +1228,7 @@ public final class Instances {
                     "GRANT ALL ON %s.* TO '%s'@'%s';",
                     config.dbname(),
                     config.user(),
-                    Instances.DEFAULT_HOST
+                    Instances.host(config)
                 )
             );
             writer.println("SHOW DATABASES;");
@@ -412,7 +1251,7 @@ public final class Instances {
      * @param cmds Commands
      * @return Process builder
      */
-    private ProcessBuilder builder(final File dist, final String name,
+    static ProcessBuilder builder(final File dist, final String name,
         final String... cmds) {
         String label = name;
         final Collection<String> commands = new LinkedList<>();
@@ -432,26 +1271,29 @@ public final class Instances {
         }
         commands.add(new File(dist, label).getAbsolutePath());
         commands.addAll(Arrays.asList(cmds));
-        Logger.info(this, "$ %s", StringUtils.join(commands, " "));
+        Logger.info(Instances.class, "$ %s", StringUtils.join(commands, " "));
         return new ProcessBuilder()
             .command(commands.toArray(new String[0]))
             .directory(dist);
     }
 
     /**
-     * Will set the {@link Instances#clean} flag, indicating if the database
-     * can be reused or if it should be deleted and recreated.
+     * Decide whether the database can be reused or it should be
+     * deleted and recreated.
      * @param target Location of database
      * @param deldir Should database always be cleared
+     * @return TRUE if a new database has to be created
      */
-    private void setClean(final File target, final boolean deldir) {
+    private boolean fresh(final File target, final boolean deldir) {
+        final boolean fresh;
         if (new File(target, Instances.DATA_SUB_DIR).exists() && !deldir) {
             Logger.info(this, "reuse existing database %s", target);
-            this.clean = false;
+            fresh = false;
         } else {
-            this.clean = true;
+            fresh = true;
         }
-        Logger.info(this, "reuse existing database %s", !this.clean);
+        Logger.info(this, "reuse existing database %s", !fresh);
+        return fresh;
     }
 
 }
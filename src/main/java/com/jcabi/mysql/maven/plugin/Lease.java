@@ -0,0 +1,126 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2012-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.mysql.maven.plugin;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.apache.commons.io.FileUtils;
+
+/**
+ * Client of the {@link Daemon}.
+ *
+ * <p>The class is thread-safe.
+ * @since 1.0
+ */
+@ToString
+@EqualsAndHashCode(of = "control")
+final class Lease {
+
+    /**
+     * Control file of the daemon.
+     */
+    private final transient File control;
+
+    /**
+     * Ctor.
+     * @param file Control file of the daemon
+     */
+    Lease(final File file) {
+        this.control = file;
+    }
+
+    /**
+     * Take an instance from the daemon.
+     * @param config Database, user and password to create there
+     * @return Port of the instance
+     * @throws IOException If fails
+     */
+    public int take(final Config config) throws IOException {
+        return Integer.parseInt(
+            this.talk(
+                "LEASE",
+                String.format(
+                    "%s %s %s",
+                    Lease.encode(config.dbname()),
+                    Lease.encode(config.user()),
+                    Lease.encode(config.password())
+                )
+            ).trim()
+        );
+    }
+
+    /**
+     * Give the instance back to the daemon.
+     * @param port Port of the instance
+     * @throws IOException If fails
+     */
+    public void give(final int port) throws IOException {
+        this.talk("RELEASE", Integer.toString(port));
+    }
+
+    /**
+     * Send request, return the payload of the positive response.
+     * @param verb Request verb
+     * @param args Request arguments, which go after the token
+     * @return Payload of the response
+     * @throws IOException If fails
+     */
+    private String talk(final String verb, final String args)
+        throws IOException {
+        if (!this.control.exists()) {
+            throw new IOException(
+                String.format(
+                    "Daemon is not running, control file %s is absent",
+                    this.control
+                )
+            );
+        }
+        final String[] parts = FileUtils.readFileToString(
+            this.control, StandardCharsets.UTF_8
+        ).trim().split(" ");
+        final int port = Integer.parseInt(parts[0]);
+        final String answer;
+        try (
+            Socket socket = new Socket(InetAddress.getLoopbackAddress(), port);
+            BufferedReader reader = new BufferedReader(
+                new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8)
+            );
+            PrintWriter writer = new PrintWriter(
+                new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8),
+                true
+            )
+        ) {
+            writer.println(String.format("%s %s %s", verb, parts[1], args));
+            answer = String.valueOf(reader.readLine());
+        }
+        if (!answer.startsWith("OK")) {
+            throw new IOException(
+                String.format("Daemon refused %s: %s", verb, answer)
+            );
+        }
+        return answer.substring(2);
+    }
+
+    /**
+     * URL-encode protocol argument.
+     * @param arg The argument
+     * @return Encoded text
+     * @throws IOException If fails
+     */
+    private static String encode(final String arg) throws IOException {
+        return URLEncoder.encode(arg, StandardCharsets.UTF_8.name());
+    }
+
+}
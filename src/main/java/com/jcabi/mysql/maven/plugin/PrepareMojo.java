@@ -0,0 +1,158 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2012-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.mysql.maven.plugin;
+
+import com.jcabi.log.Logger;
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugins.annotations.Component;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.project.MavenProject;
+import org.eclipse.aether.RepositorySystem;
+import org.eclipse.aether.RepositorySystemSession;
+import org.eclipse.aether.artifact.DefaultArtifact;
+import org.eclipse.aether.repository.RemoteRepository;
+import org.eclipse.aether.resolution.ArtifactRequest;
+import org.eclipse.aether.resolution.ArtifactResolutionException;
+import org.slf4j.impl.StaticLoggerBinder;
+
+/**
+ * Resolves MySQL distribution and unpacks it into a shared store.
+ *
+ * <p>Use it instead of {@code maven-dependency-plugin:unpack}. The
+ * distribution is unpacked once per machine into the {@code store},
+ * see {@link Distribution}, not into {@code target} of every module on
+ * every clean build. Its location is exported as
+ * {@code jcabi.mysql.dist} Maven property, which other goals of the
+ * plugin use instead of {@code dist}.
+ *
+ * @since 1.0
+ */
+@ToString
+@EqualsAndHashCode(callSuper = false)
+@Mojo(
+    threadSafe = true, name = "prepare",
+    defaultPhase = LifecyclePhase.PROCESS_TEST_RESOURCES
+)
+public final class PrepareMojo extends AbstractMojo {
+
+    /**
+     * The Maven project.
+     */
+    @Parameter(
+        defaultValue = "${project}",
+        readonly = true
+    )
+    private transient MavenProject project;
+
+    /**
+     * Repository system.
+     */
+    @Component
+    private transient RepositorySystem system;
+
+    /**
+     * Repository session.
+     */
+    @Parameter(
+        defaultValue = "${repositorySystemSession}",
+        readonly = true
+    )
+    private transient RepositorySystemSession session;
+
+    /**
+     * Remote repositories of the project.
+     */
+    @Parameter(
+        defaultValue = "${project.remoteProjectRepositories}",
+        readonly = true
+    )
+    private transient List<RemoteRepository> repositories;
+
+    /**
+     * Shall we skip execution?
+     */
+    @Parameter(
+        defaultValue = "false",
+        required = false
+    )
+    private transient boolean skip;
+
+    /**
+     * Coordinates of the distribution, as
+     * {@code groupId:artifactId:extension:classifier:version}.
+     */
+    @Parameter(
+        defaultValue = "com.jcabi:mysql-dist:zip:${mysql.classifier}:8.0.33.1",
+        property = "jcabi.mysql.artifact",
+        required = true
+    )
+    private transient String artifact;
+
+    /**
+     * Shared directory, where distributions are unpacked.
+     */
+    @Parameter(
+        defaultValue = "${user.home}/.jcabi-mysql",
+        property = "jcabi.mysql.store",
+        required = true
+    )
+    private transient File store;
+
+    /**
+     * Skip debug binaries, test suites, static libraries, headers and
+     * manuals, which are never used?
+     */
+    @Parameter(
+        defaultValue = "false",
+        property = "jcabi.mysql.trim",
+        required = false
+    )
+    private transient boolean trim;
+
+    @Override
+    public void execute() throws MojoFailureException {
+        StaticLoggerBinder.getSingleton().setMavenLog(this.getLog());
+        if (this.skip) {
+            Logger.info(this, "execution skipped because of 'skip' option");
+            return;
+        }
+        final File zip;
+        try {
+            zip = this.system.resolveArtifact(
+                this.session,
+                new ArtifactRequest(
+                    new DefaultArtifact(this.artifact), this.repositories, null
+                )
+            ).getArtifact().getFile();
+        } catch (final ArtifactResolutionException ex) {
+            throw new MojoFailureException(
+                String.format("failed to resolve %s", this.artifact), ex
+            );
+        }
+        final File dir;
+        try {
+            dir = new Distribution(this.store).unpack(zip, this.trim);
+        } catch (final IOException ex) {
+            throw new MojoFailureException(
+                String.format("failed to unpack %s", zip), ex
+            );
+        }
+        this.project.getProperties().setProperty(
+            AbstractMysqlMojo.PROPERTY_DIST, dir.getAbsolutePath()
+        );
+        Logger.info(
+            this, "${%s} set to \"%s\"", AbstractMysqlMojo.PROPERTY_DIST, dir
+        );
+    }
+
+}
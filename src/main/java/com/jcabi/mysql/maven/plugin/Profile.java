@@ -0,0 +1,226 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2012-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.mysql.maven.plugin;
+
+import java.lang.management.ManagementFactory;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Locale;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Performance profile of a MySQL instance.
+ *
+ * <p>A profile is a set of {@code mysqld} options, sized by the amount of
+ * physical memory and the number of cores of the machine. Options of the
+ * profile go before user-supplied ones, which override them.
+ *
+ * <ul>
+ *   <li>{@code fast-test}: small buffer pool and redo log, a few I/O
+ *   threads, no general log;</li>
+ *   <li>{@code production-like}: a quarter of the memory for the buffer
+ *   pool, I/O threads by cores, native AIO;</li>
+ *   <li>{@code debug}: sized as {@code fast-test}, but with the general
+ *   log and verbose error log.</li>
+ * </ul>
+ *
+ * @since 1.0
+ */
+public enum Profile {
+
+    /**
+     * Small and quick, for tests.
+     */
+    FAST_TEST("fast-test", 16L, 64L, 1024L, 4, 50, false),
+
+    /**
+     * Sized as a real server.
+     */
+    PRODUCTION_LIKE("production-like", 4L, 128L, 8192L, 64, 500, false),
+
+    /**
+     * Small, with every query logged.
+     */
+    DEBUG("debug", 16L, 64L, 1024L, 4, 50, true);
+
+    /**
+     * One megabyte.
+     */
+    private static final long MEGA = 1024L * 1024L;
+
+    /**
+     * Name of the profile.
+     */
+    private final String label;
+
+    /**
+     * Which part of the memory goes to the buffer pool.
+     */
+    private final long share;
+
+    /**
+     * Minimum size of the buffer pool, in megabytes.
+     */
+    private final long floor;
+
+    /**
+     * Maximum size of the buffer pool, in megabytes.
+     */
+    private final long ceiling;
+
+    /**
+     * Maximum number of read and write I/O threads.
+     */
+    private final int threads;
+
+    /**
+     * Cached tables per core.
+     */
+    private final int tables;
+
+    /**
+     * Is it verbose, with the general log?
+     */
+    private final boolean verbose;
+
+    /**
+     * Ctor.
+     * @param name Name of the profile
+     * @param part Which part of the memory goes to the buffer pool
+     * @param min Minimum size of the buffer pool, in megabytes
+     * @param max Maximum size of the buffer pool, in megabytes
+     * @param ios Maximum number of read and write I/O threads
+     * @param cache Cached tables per core
+     * @param log Is it verbose, with the general log?
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    Profile(final String name, final long part, final long min,
+        final long max, final int ios, final int cache, final boolean log) {
+        this.label = name;
+        this.share = part;
+        this.floor = min;
+        this.ceiling = max;
+        this.threads = ios;
+        this.tables = cache;
+        this.verbose = log;
+    }
+
+    @Override
+    public String toString() {
+        return this.label;
+    }
+
+    /**
+     * Find profile by its name.
+     * @param name Name, like {@code fast-test}
+     * @return Profile
+     */
+    public static Profile named(final String name) {
+        Profile found = null;
+        for (final Profile profile : Profile.values()) {
+            if (profile.label.equals(name.trim().toLowerCase(Locale.ENGLISH))) {
+                found = profile;
+                break;
+            }
+        }
+        if (found == null) {
+            throw new IllegalArgumentException(
+                String.format(
+                    "Unknown profile '%s', use one of: fast-test, production-like, debug",
+                    name
+                )
+            );
+        }
+        return found;
+    }
+
+    /**
+     * Options for this machine, except the ones overridden by the user.
+     * @param overrides Options supplied by the user
+     * @return Options, without leading dashes
+     */
+    public List<String> options(final Collection<String> overrides) {
+        return this.options(
+            Profile.memory(), Runtime.getRuntime().availableProcessors(),
+            overrides
+        );
+    }
+
+    /**
+     * Options for the machine, except the ones overridden by the user.
+     * @param memory Physical memory, in bytes
+     * @param cores Number of cores
+     * @param overrides Options supplied by the user
+     * @return Options, without leading dashes
+     */
+    public List<String> options(final long memory, final int cores,
+        final Collection<String> overrides) {
+        final long pool = Math.min(
+            Math.max(memory / Profile.MEGA / this.share, this.floor),
+            this.ceiling
+        );
+        final int ios = Math.max(1, Math.min(cores, this.threads));
+        final List<String> all = new LinkedList<>();
+        all.add(String.format("innodb_buffer_pool_size=%dM", pool));
+        all.add(
+            String.format(
+                "innodb_log_file_size=%dM", Math.max(pool / 4L, 48L)
+            )
+        );
+        all.add(String.format("innodb_read_io_threads=%d", ios));
+        all.add(String.format("innodb_write_io_threads=%d", ios));
+        all.add(
+            String.format(
+                "table_open_cache=%d",
+                Math.min(Math.max(cores * this.tables, 400), 16_000)
+            )
+        );
+        if (this != Profile.PRODUCTION_LIKE) {
+            all.add("innodb_use_native_aio=0");
+        }
+        if (this.verbose) {
+            all.add("general_log");
+            all.add("log_error_verbosity=3");
+        }
+        final Collection<String> names = new HashSet<>(overrides.size());
+        for (final String option : overrides) {
+            names.add(Profile.name(option));
+        }
+        all.removeIf(option -> names.contains(Profile.name(option)));
+        return all;
+    }
+
+    /**
+     * Physical memory of the machine.
+     * @return Bytes, or zero if unknown
+     */
+    private static long memory() {
+        long memory;
+        try {
+            memory = ((Number) ManagementFactory.getPlatformMBeanServer()
+                .getAttribute(
+                    new ObjectName(ManagementFactory.OPERATING_SYSTEM_MXBEAN_NAME),
+                    "TotalPhysicalMemorySize"
+                )).longValue();
+        } catch (final JMException ex) {
+            memory = 0L;
+        }
+        return memory;
+    }
+
+    /**
+     * Normalized name of an option, without value.
+     * @param option Option, like {@code innodb-buffer-pool-size=1G}
+     * @return Name, like {@code innodb_buffer_pool_size}
+     */
+    private static String name(final String option) {
+        return option.trim().replaceFirst("^--", "").split("=", 2)[0]
+            .replace('-', '_').toLowerCase(Locale.ENGLISH);
+    }
+
+}
@@ -0,0 +1,273 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2012-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.mysql.maven.plugin;
+
+import com.jcabi.log.Logger;
+import com.jcabi.log.VerboseRunnable;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * Pump of MySQL output into the log, shared by all instances.
+ *
+ * <p>A reader thread per process only reads lines, notifies the listener
+ * (see {@link Readiness}) and puts the lines, which are severe enough,
+ * into a bounded ring buffer. When the buffer is full, the oldest line is
+ * dropped. One forwarder thread takes lines from the buffer and logs
+ * them, at most {@code rate} lines per second; the rest is counted and
+ * reported as suppressed.
+ *
+ * <p>Severity of a line is taken from its tag: {@code [ERROR]} and
+ * {@code [System]} lines are the most severe, then {@code [Warning]},
+ * then {@code [Note]} and untagged lines.
+ *
+ * <p>The class is thread-safe.
+ * @since 1.0
+ */
+@ToString(of = { "rate", "dropped", "suppressed" })
+@EqualsAndHashCode(of = { "rate", "ring" })
+@SuppressWarnings("PMD.DoNotUseThreads")
+final class Pump {
+
+    /**
+     * Default capacity of the ring buffer.
+     */
+    private static final int CAPACITY = 1024;
+
+    /**
+     * Default maximum of lines logged per second.
+     */
+    private static final int RATE = 100;
+
+    /**
+     * Verbosity names, by rank.
+     */
+    private static final String[] NAMES = {"", "note", "warning", "error"};
+
+    /**
+     * Lines waiting to be logged.
+     */
+    private final transient BlockingQueue<String> ring;
+
+    /**
+     * Maximum of lines logged per second.
+     */
+    private final transient int rate;
+
+    /**
+     * Lines dropped because the buffer was full.
+     */
+    private final transient AtomicLong dropped;
+
+    /**
+     * Lines not logged because of the rate limit.
+     */
+    private final transient AtomicLong suppressed;
+
+    /**
+     * Is the forwarder running?
+     */
+    private final transient AtomicBoolean running;
+
+    /**
+     * Ctor.
+     */
+    Pump() {
+        this(Pump.CAPACITY, Pump.RATE);
+    }
+
+    /**
+     * Ctor.
+     * @param capacity Capacity of the ring buffer
+     * @param max Maximum of lines logged per second
+     */
+    Pump(final int capacity, final int max) {
+        this.ring = new ArrayBlockingQueue<>(capacity);
+        this.rate = max;
+        this.dropped = new AtomicLong();
+        this.suppressed = new AtomicLong();
+        this.running = new AtomicBoolean();
+    }
+
+    /**
+     * Pump the output of the process, in a background thread.
+     * @param stream Output of the process
+     * @param port Port of the instance, to prefix lines with
+     * @param verbosity The least severe lines to log: note, warning
+     *  or error
+     * @param listener Listener of every line, even the ones not logged
+     */
+    public void attach(final InputStream stream, final int port,
+        final String verbosity, final Consumer<String> listener) {
+        final int threshold = Pump.threshold(verbosity);
+        final Thread thread = new Thread(
+            new VerboseRunnable(
+                (Callable<Void>) () -> {
+                    this.read(stream, port, threshold, listener);
+                    return null;
+                }
+            ),
+            String.format("mysqld-%d", port)
+        );
+        thread.setDaemon(true);
+        thread.start();
+        if (this.running.compareAndSet(false, true)) {
+            final Thread forwarder = new Thread(
+                new VerboseRunnable(this::forward, true), "mysqld-pump"
+            );
+            forwarder.setDaemon(true);
+            forwarder.start();
+        }
+    }
+
+    /**
+     * Put line into the ring buffer, dropping the oldest one if full.
+     * @param line The line
+     */
+    public void offer(final String line) {
+        while (!this.ring.offer(line)) {
+            if (this.ring.poll() != null) {
+                this.dropped.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Forward lines from the buffer to the log, until interrupted.
+     */
+    public void forward() {
+        long window = System.currentTimeMillis();
+        int count = 0;
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                final String line = this.ring.poll(1L, TimeUnit.SECONDS);
+                final long now = System.currentTimeMillis();
+                if (now - window >= TimeUnit.SECONDS.toMillis(1L)) {
+                    this.report();
+                    window = now;
+                    count = 0;
+                }
+                if (line != null && count < this.rate) {
+                    Pump.log(line);
+                    ++count;
+                } else if (line != null) {
+                    this.suppressed.incrementAndGet();
+                }
+            }
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Rank of the verbosity.
+     * @param verbosity Verbosity: note, warning or error
+     * @return Rank, from 1 to 3
+     */
+    public static int threshold(final String verbosity) {
+        int rank = 0;
+        for (int idx = 1; idx < Pump.NAMES.length; ++idx) {
+            if (Pump.NAMES[idx].equals(verbosity.trim().toLowerCase(Locale.ENGLISH))) {
+                rank = idx;
+            }
+        }
+        if (rank == 0) {
+            throw new IllegalArgumentException(
+                String.format(
+                    "Unknown verbosity '%s', use one of: note, warning, error",
+                    verbosity
+                )
+            );
+        }
+        return rank;
+    }
+
+    /**
+     * Rank of the line.
+     * @param line The line of MySQL output
+     * @return Rank, from 1 to 3
+     */
+    public static int rank(final String line) {
+        final int rank;
+        if (line.contains("[ERROR]") || line.contains("[System]")) {
+            rank = 3;
+        } else if (line.contains("[Warning]")) {
+            rank = 2;
+        } else {
+            rank = 1;
+        }
+        return rank;
+    }
+
+    /**
+     * Read lines of the process.
+     * @param stream Output of the process
+     * @param port Port of the instance
+     * @param threshold Rank of the least severe lines to log
+     * @param listener Listener of every line
+     * @throws IOException If fails
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    private void read(final InputStream stream, final int port,
+        final int threshold, final Consumer<String> listener)
+        throws IOException {
+        try (BufferedReader reader = new BufferedReader(
+            new InputStreamReader(stream, StandardCharsets.UTF_8)
+        )) {
+            while (true) {
+                final String line = reader.readLine();
+                if (line == null) {
+                    break;
+                }
+                listener.accept(line);
+                if (Pump.rank(line) >= threshold) {
+                    this.offer(String.format("%d: %s", port, line));
+                }
+            }
+        }
+    }
+
+    /**
+     * Report lost lines, if any.
+     */
+    private void report() {
+        final long lost = this.dropped.getAndSet(0L)
+            + this.suppressed.getAndSet(0L);
+        if (lost > 0L) {
+            Logger.warn(
+                this, "%d line(s) of MySQL output were not logged, too many",
+                lost
+            );
+        }
+    }
+
+    /**
+     * Log one line at its level.
+     * @param line The line
+     */
+    private static void log(final String line) {
+        if (line.contains("[ERROR]")) {
+            Logger.error(Pump.class, "%s", line);
+        } else if (line.contains("[Warning]")) {
+            Logger.warn(Pump.class, "%s", line);
+        } else {
+            Logger.info(Pump.class, "%s", line);
+        }
+    }
+
+}
@@ -0,0 +1,225 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2012-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.mysql.maven.plugin;
+
+import com.jcabi.log.Logger;
+import java.io.File;
+import java.io.IOException;
+import java.net.BindException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+import lombok.ToString;
+
+/**
+ * Readiness of a starting MySQL server.
+ *
+ * <p>The server is ready when it says so in its output: the line
+ * "mysqld: ready for connections" is printed right after it starts
+ * accepting queries. This class consumes the output line by line and
+ * wakes up the waiting thread as soon as the line shows up. Just in case
+ * the line never comes (the output format is different in some
+ * versions), the port and the socket are probed too, with a fine-grained
+ * exponential backoff, and the socket directory is watched, to probe
+ * again right after the socket file appears. Every probe validates
+ * the MySQL handshake, see {@link SocketHelper}.
+ *
+ * <p>When the server says that its port is already taken by someone else,
+ * waiting stops right away with {@link BindException}, even if the port
+ * answers, since it's not this server that answers there.
+ *
+ * <p>The class is thread-safe.
+ * @since 1.0
+ */
+@ToString
+final class Readiness implements Consumer<String> {
+
+    /**
+     * Pattern of the line printed when the server is ready.
+     */
+    static final Pattern READY = Pattern.compile(
+        "mysqld(\\.exe)?: ready for connections"
+    );
+
+    /**
+     * Pattern of the line printed when the port is taken.
+     */
+    private static final Pattern CONFLICT = Pattern.compile(
+        "Bind on TCP/IP port|Do you already have another mysqld server running on port"
+    );
+
+    /**
+     * Minimum delay between probes, in milliseconds.
+     */
+    private static final long MIN_DELAY = 5L;
+
+    /**
+     * Maximum delay between probes, in milliseconds.
+     */
+    private static final long MAX_DELAY = 250L;
+
+    /**
+     * How long to wait, in milliseconds.
+     */
+    private final transient long timeout;
+
+    /**
+     * Timeout of one probe, in milliseconds.
+     */
+    private final transient long probe;
+
+    /**
+     * Latch released when the server reports readiness.
+     */
+    private final transient CountDownLatch latch;
+
+    /**
+     * Did the server fail to bind its port?
+     */
+    private final transient AtomicBoolean conflict;
+
+    /**
+     * Ctor.
+     */
+    Readiness() {
+        this(TimeUnit.MINUTES.toMillis(5L), SocketHelper.TIMEOUT);
+    }
+
+    /**
+     * Ctor.
+     * @param msec How long to wait, in milliseconds
+     * @param attempt Timeout of one probe, in milliseconds
+     */
+    Readiness(final long msec, final long attempt) {
+        this.timeout = msec;
+        this.probe = attempt;
+        this.latch = new CountDownLatch(1);
+        this.conflict = new AtomicBoolean();
+    }
+
+    @Override
+    public void accept(final String line) {
+        if (Readiness.CONFLICT.matcher(line).find()) {
+            this.conflict.set(true);
+            this.latch.countDown();
+        }
+        if (Readiness.READY.matcher(line).find()) {
+            this.latch.countDown();
+        }
+    }
+
+    /**
+     * Wait until the server is ready.
+     * @param proc The process of the server
+     * @param socket Socket file of the server
+     * @param port TCP port of the server, or zero if it listens only on
+     *  the socket file
+     * @throws IOException If the server is not ready in time or dies
+     * @throws BindException If the port is taken by someone else
+     */
+    public void await(final Process proc, final File socket, final int port)
+        throws IOException {
+        final long start = System.currentTimeMillis();
+        final Path dir = socket.getAbsoluteFile().toPath().getParent();
+        try (WatchService watcher = FileSystems.getDefault().newWatchService()) {
+            if (dir.toFile().isDirectory()) {
+                dir.register(watcher, StandardWatchEventKinds.ENTRY_CREATE);
+            }
+            long delay = Readiness.MIN_DELAY;
+            while (true) {
+                final boolean reported =
+                    this.latch.await(delay, TimeUnit.MILLISECONDS);
+                this.check(port);
+                if (reported) {
+                    Logger.info(
+                        this, "MySQL reported readiness after %[ms]s",
+                        System.currentTimeMillis() - start
+                    );
+                    break;
+                }
+                if (!proc.isAlive()) {
+                    this.latch.await(1L, TimeUnit.SECONDS);
+                    this.check(port);
+                    throw new IOException(
+                        String.format(
+                            "MySQL exited with code %d before getting ready",
+                            proc.exitValue()
+                        )
+                    );
+                }
+                if (Readiness.created(watcher, socket)) {
+                    delay = Readiness.MIN_DELAY;
+                }
+                if (SocketHelper.isOpen(socket, this.probe)
+                    || port > 0 && SocketHelper.isOpen(port, this.probe)
+                    && proc.isAlive() && !this.conflict.get()) {
+                    Logger.info(
+                        this, "MySQL answered at %d/%s after %[ms]s",
+                        port, socket, System.currentTimeMillis() - start
+                    );
+                    break;
+                }
+                final long age = System.currentTimeMillis() - start;
+                if (age > this.timeout) {
+                    throw new IOException(
+                        Logger.format(
+                            "MySQL is not ready after %[ms]s of waiting", age
+                        )
+                    );
+                }
+                delay = Math.min(delay * 2L, Readiness.MAX_DELAY);
+            }
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    /**
+     * Fail if the server said that its port is taken.
+     *
+     * <p>Used when the output is not consumed while the server boots,
+     * but read from a file later.
+     * @param port TCP port of the server
+     * @throws BindException If the port is taken
+     */
+    public void check(final int port) throws BindException {
+        if (this.conflict.get()) {
+            throw new BindException(
+                String.format("Port %d is taken by someone else", port)
+            );
+        }
+    }
+
+    /**
+     * Was the socket file just created?
+     * @param watcher Watcher of the socket directory
+     * @param socket Socket file
+     * @return TRUE if it was created since the last check
+     */
+    private static boolean created(final WatchService watcher,
+        final File socket) {
+        boolean found = false;
+        final WatchKey key = watcher.poll();
+        if (key != null) {
+            for (final WatchEvent<?> event : key.pollEvents()) {
+                if (socket.getName().equals(String.valueOf(event.context()))) {
+                    found = true;
+                }
+            }
+            key.reset();
+        }
+        return found;
+    }
+
+}
@@ -0,0 +1,48 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2012-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.mysql.maven.plugin;
+
+import java.io.IOException;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+
+/**
+ * Resets a running MySQL to the checkpoint made by {@code snapshot} goal.
+ *
+ * <p>The server is stopped, only the files of its data directory that
+ * changed since the checkpoint are copied back, and the server is
+ * started again, at the same port.
+ *
+ * @since 1.0
+ */
+@ToString
+@EqualsAndHashCode(callSuper = false)
+@Mojo(
+    threadSafe = true, name = "restore",
+    defaultPhase = LifecyclePhase.PRE_INTEGRATION_TEST
+)
+public final class RestoreMojo extends AbstractMysqlMojo {
+
+    @Override
+    public void run(final Instances instances) throws MojoFailureException {
+        for (final Config config : this.configs()) {
+            try {
+                instances.restore(config.port(), this.checkpointDir(config));
+            } catch (final IOException ex) {
+                throw new MojoFailureException(
+                    String.format(
+                        "failed to restore MySQL at %d port from the checkpoint",
+                        config.port()
+                    ),
+                    ex
+                );
+            }
+        }
+    }
+
+}
@@ -29,13 +29,7 @@ public final class RunMojo extends AbstractMysqlMojo {
     public void run(final Instances instances) throws MojoFailureException {
         final Config config = this.config();
         try {
-            instances.start(
-                config,
-                this.distDir(),
-                this.dataDir(),
-                this.clear(),
-                this.socketFile()
-            );
+            this.startup(instances);
         } catch (final IOException ex) {
             throw new MojoFailureException(
                 "failed to start MySQL server", ex
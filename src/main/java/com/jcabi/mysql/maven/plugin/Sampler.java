@@ -0,0 +1,425 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2012-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.mysql.maven.plugin;
+
+import com.jcabi.log.Logger;
+import com.jcabi.log.VerboseRunnable;
+import com.jcabi.log.VerboseThreads;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.apache.commons.io.FileUtils;
+
+/**
+ * Sampler of status of a running MySQL server.
+ *
+ * <p>Every interval it runs {@code SHOW GLOBAL STATUS} for a few
+ * variables over one {@link Client.Session}, which is opened again if
+ * it breaks, for example when the server restarts. When closed, it saves
+ * the samples as an OpenMetrics text file, with deltas of counters and
+ * values of gauges, and logs a summary table. When a counter goes down,
+ * because the server was restarted, its delta is its new value.
+ *
+ * <p>The class is thread-safe.
+ * @since 1.0
+ */
+@ToString(of = { "port", "file" })
+@EqualsAndHashCode(of = { "client", "port", "file" })
+final class Sampler implements Closeable {
+
+    /**
+     * Status variables, which only grow.
+     */
+    private static final List<String> COUNTERS = Arrays.asList(
+        "Questions",
+        "Com_select",
+        "Com_insert",
+        "Com_update",
+        "Com_delete",
+        "Innodb_buffer_pool_read_requests",
+        "Innodb_buffer_pool_reads",
+        "Innodb_rows_read",
+        "Innodb_rows_inserted",
+        "Innodb_rows_updated",
+        "Innodb_rows_deleted",
+        "Innodb_row_lock_waits",
+        "Innodb_row_lock_time",
+        "Created_tmp_tables",
+        "Created_tmp_disk_tables",
+        "Slow_queries",
+        "Bytes_received",
+        "Bytes_sent"
+    );
+
+    /**
+     * Status variables, which go up and down.
+     */
+    private static final List<String> GAUGES = Arrays.asList(
+        "Threads_running",
+        "Threads_connected"
+    );
+
+    /**
+     * Client of the server.
+     */
+    private final transient Client client;
+
+    /**
+     * Port of the server, for labels.
+     */
+    private final transient int port;
+
+    /**
+     * Where to save the samples.
+     */
+    private final transient File file;
+
+    /**
+     * Samples taken.
+     */
+    private final transient List<Sampler.Sample> samples;
+
+    /**
+     * Service that takes samples.
+     */
+    private final transient ScheduledExecutorService service;
+
+    /**
+     * The session, used only by the thread of the service.
+     */
+    private transient Client.Session session;
+
+    /**
+     * Ctor.
+     * @param clnt Client of the server
+     * @param prt Port of the server
+     * @param path Where to save the samples
+     */
+    Sampler(final Client clnt, final int prt, final File path) {
+        this.client = clnt;
+        this.port = prt;
+        this.file = path;
+        this.samples = Collections.synchronizedList(new ArrayList<>(0));
+        this.service = Executors.newSingleThreadScheduledExecutor(
+            new VerboseThreads(Sampler.class)
+        );
+    }
+
+    /**
+     * Start sampling.
+     * @param interval Interval, in milliseconds
+     */
+    public void start(final long interval) {
+        this.service.scheduleAtFixedRate(
+            new VerboseRunnable(this::sample, true),
+            0L, interval, TimeUnit.MILLISECONDS
+        );
+        Logger.info(
+            this, "Status of MySQL at %d port is sampled every %[ms]s",
+            this.port, interval
+        );
+    }
+
+    /**
+     * Take one sample now.
+     */
+    public void sample() {
+        try {
+            if (this.session == null) {
+                this.session = this.client.open();
+            }
+            this.samples.add(
+                Sampler.parse(
+                    System.currentTimeMillis(),
+                    this.session.query(Sampler.query())
+                )
+            );
+        } catch (final IOException ex) {
+            Logger.debug(
+                this, "Failed to sample status of MySQL at %d port: %s",
+                this.port, ex.getMessage()
+            );
+            this.drop();
+        }
+    }
+
+    /**
+     * Close the broken session quietly and forget it, so that the next
+     * sample opens a new one.
+     */
+    private void drop() {
+        if (this.session != null) {
+            try {
+                this.session.close();
+            } catch (final IOException ex) {
+                Logger.debug(
+                    this, "Failed to close session with MySQL at %d port: %s",
+                    this.port, ex.getMessage()
+                );
+            }
+            this.session = null;
+        }
+    }
+
+    /**
+     * Stop sampling, save the samples and log the summary.
+     * @throws IOException If fails
+     */
+    @Override
+    public void close() throws IOException {
+        this.service.shutdown();
+        try {
+            if (!this.service.awaitTermination(1L, TimeUnit.MINUTES)) {
+                this.service.shutdownNow();
+            }
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(ex);
+        }
+        if (this.session != null) {
+            this.session.close();
+        }
+        final List<Sampler.Sample> all;
+        synchronized (this.samples) {
+            all = new ArrayList<>(this.samples);
+        }
+        FileUtils.writeStringToFile(
+            this.file, Sampler.metrics(this.port, all), StandardCharsets.UTF_8
+        );
+        Logger.info(
+            this, "%d sample(s) of status of MySQL at %d port saved into %s%s",
+            all.size(), this.port, this.file, Sampler.summary(all)
+        );
+    }
+
+    /**
+     * Render samples as OpenMetrics text.
+     * @param port Port of the server
+     * @param all Samples, in order of time
+     * @return Text
+     */
+    static String metrics(final int port, final List<Sampler.Sample> all) {
+        final StringBuilder text = new StringBuilder(0);
+        for (int idx = 0; idx < Sampler.COUNTERS.size(); ++idx) {
+            final String name = Sampler.metric(Sampler.COUNTERS.get(idx));
+            text.append(String.format("# TYPE %s gauge\n", name))
+                .append(
+                    String.format(
+                        "# HELP %s Growth of %s since the previous sample\n",
+                        name, Sampler.COUNTERS.get(idx)
+                    )
+                );
+            for (int pos = 1; pos < all.size(); ++pos) {
+                text.append(
+                    Sampler.line(
+                        name, port, all.get(pos).time,
+                        Sampler.delta(all.get(pos - 1), all.get(pos), idx)
+                    )
+                );
+            }
+        }
+        for (int idx = 0; idx < Sampler.GAUGES.size(); ++idx) {
+            final String name = Sampler.metric(Sampler.GAUGES.get(idx));
+            text.append(String.format("# TYPE %s gauge\n", name))
+                .append(
+                    String.format(
+                        "# HELP %s Value of %s\n", name, Sampler.GAUGES.get(idx)
+                    )
+                );
+            for (final Sampler.Sample sample : all) {
+                text.append(
+                    Sampler.line(
+                        name, port, sample.time,
+                        sample.values[Sampler.COUNTERS.size() + idx]
+                    )
+                );
+            }
+        }
+        return text.append("# EOF\n").toString();
+    }
+
+    /**
+     * Render samples as a summary table.
+     * @param all Samples, in order of time
+     * @return Text, with leading line break, or empty if not enough samples
+     */
+    static String summary(final List<Sampler.Sample> all) {
+        final StringBuilder text = new StringBuilder(0);
+        if (all.size() > 1) {
+            final double seconds = Math.max(
+                1L, all.get(all.size() - 1).time - all.get(0).time
+            ) / 1000.0d;
+            text.append(
+                String.format(
+                    "\n%-34s %14s %12s %14s",
+                    "Counter", "total", "per sec", "peak/sample"
+                )
+            );
+            for (int idx = 0; idx < Sampler.COUNTERS.size(); ++idx) {
+                long total = 0L;
+                long peak = 0L;
+                for (int pos = 1; pos < all.size(); ++pos) {
+                    final long delta = Sampler.delta(
+                        all.get(pos - 1), all.get(pos), idx
+                    );
+                    total += delta;
+                    peak = Math.max(peak, delta);
+                }
+                text.append(
+                    String.format(
+                        Locale.ENGLISH, "\n%-34s %14d %12.1f %14d",
+                        Sampler.COUNTERS.get(idx), total, total / seconds, peak
+                    )
+                );
+            }
+            text.append(
+                String.format(
+                    "\n%-34s %14s %12s %14s", "Gauge", "min", "avg", "max"
+                )
+            );
+            for (int idx = 0; idx < Sampler.GAUGES.size(); ++idx) {
+                final int col = Sampler.COUNTERS.size() + idx;
+                text.append(
+                    String.format(
+                        Locale.ENGLISH, "\n%-34s %14d %12.1f %14d",
+                        Sampler.GAUGES.get(idx),
+                        all.stream().mapToLong(s -> s.values[col]).min()
+                            .getAsLong(),
+                        all.stream().mapToLong(s -> s.values[col]).average()
+                            .getAsDouble(),
+                        all.stream().mapToLong(s -> s.values[col]).max()
+                            .getAsLong()
+                    )
+                );
+            }
+        }
+        return text.toString();
+    }
+
+    /**
+     * Parse output of the query.
+     * @param time When it was taken, in milliseconds since epoch
+     * @param output Output of {@code SHOW GLOBAL STATUS}
+     * @return Sample
+     */
+    static Sampler.Sample parse(final long time, final String output) {
+        final long[] values = new long[
+            Sampler.COUNTERS.size() + Sampler.GAUGES.size()
+        ];
+        for (final String line : output.split("\n")) {
+            final String[] parts = line.split("\t");
+            if (parts.length == 2) {
+                int idx = Sampler.COUNTERS.indexOf(parts[0]);
+                if (idx < 0 && Sampler.GAUGES.contains(parts[0])) {
+                    idx = Sampler.COUNTERS.size()
+                        + Sampler.GAUGES.indexOf(parts[0]);
+                }
+                if (idx >= 0 && parts[1].trim().matches("\\d+")) {
+                    values[idx] = Long.parseLong(parts[1].trim());
+                }
+            }
+        }
+        return new Sampler.Sample(time, values);
+    }
+
+    /**
+     * Make the query.
+     * @return SQL
+     */
+    private static String query() {
+        final List<String> names = new ArrayList<>(Sampler.COUNTERS);
+        names.addAll(Sampler.GAUGES);
+        return String.format(
+            "SHOW GLOBAL STATUS WHERE Variable_name IN (%s);",
+            names.stream().map(name -> String.format("'%s'", name))
+                .collect(Collectors.joining(", "))
+        );
+    }
+
+    /**
+     * Growth of a counter between two samples.
+     * @param before Previous sample
+     * @param after Next sample
+     * @param idx Position of the counter
+     * @return Delta
+     */
+    private static long delta(final Sampler.Sample before,
+        final Sampler.Sample after, final int idx) {
+        long delta = after.values[idx] - before.values[idx];
+        if (delta < 0L) {
+            delta = after.values[idx];
+        }
+        return delta;
+    }
+
+    /**
+     * Name of the metric of a status variable.
+     * @param variable Status variable
+     * @return Name
+     */
+    private static String metric(final String variable) {
+        return String.format(
+            "mysql_global_status_%s", variable.toLowerCase(Locale.ENGLISH)
+        );
+    }
+
+    /**
+     * Render one line of OpenMetrics text.
+     * @param name Name of the metric
+     * @param port Port of the server
+     * @param time Time, in milliseconds since epoch
+     * @param value Value
+     * @return Line
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    private static String line(final String name, final int port,
+        final long time, final long value) {
+        return String.format(
+            "%s{port=\"%d\"} %d %d.%03d\n",
+            name, port, value, time / 1000L, time % 1000L
+        );
+    }
+
+    /**
+     * Sample of status variables.
+     * @since 1.0
+     */
+    @ToString
+    @EqualsAndHashCode
+    static final class Sample {
+        /**
+         * When it was taken, in milliseconds since epoch.
+         */
+        private final transient long time;
+
+        /**
+         * Values of counters and then of gauges.
+         */
+        private final transient long[] values;
+
+        /**
+         * Ctor.
+         * @param when When it was taken, in milliseconds since epoch
+         * @param vals Values of counters and then of gauges
+         */
+        Sample(final long when, final long[] vals) {
+            this.time = when;
+            this.values = vals.clone();
+        }
+    }
+
+}
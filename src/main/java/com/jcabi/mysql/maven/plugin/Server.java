@@ -0,0 +1,241 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2012-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.mysql.maven.plugin;
+
+import com.jcabi.log.Logger;
+import com.jcabi.log.VerboseProcess;
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * Running MySQL server.
+ *
+ * <p>The server is stopped gracefully, with {@code mysqladmin shutdown},
+ * so that its data directory doesn't need crash recovery next time. When
+ * the data is going to be deleted anyway, {@code innodb_fast_shutdown=2}
+ * is set first, which skips flushing of dirty pages. If the server is not
+ * down within the time budget, it is terminated, and then killed.
+ *
+ * <p>The class is thread-safe.
+ * @since 1.0
+ */
+@ToString(of = { "config", "socket", "disposable" })
+@EqualsAndHashCode(of = "process")
+final class Server {
+
+    /**
+     * How long to wait after a signal, in milliseconds.
+     */
+    private static final long GRACE = TimeUnit.SECONDS.toMillis(10L);
+
+    /**
+     * The process.
+     */
+    private final transient Process process;
+
+    /**
+     * Its configuration.
+     */
+    private final transient Config config;
+
+    /**
+     * Directory with MySQL distribution.
+     */
+    private final transient File dist;
+
+    /**
+     * Socket file of the server.
+     */
+    private final transient File socket;
+
+    /**
+     * Its data directory.
+     */
+    private final transient File data;
+
+    /**
+     * Where it keeps logs, pid and socket files.
+     */
+    private final transient File target;
+
+    /**
+     * Is its data going to be deleted?
+     */
+    private final transient boolean disposable;
+
+    /**
+     * Ctor.
+     * @param proc The process
+     * @param cfg Its configuration
+     * @param dir Directory with MySQL distribution
+     * @param sock Socket file of the server
+     * @param datadir Its data directory
+     * @param home Where it keeps logs, pid and socket files
+     * @param erase Is its data going to be deleted?
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    Server(final Process proc, final Config cfg, final File dir,
+        final File sock, final File datadir, final File home,
+        final boolean erase) {
+        this.process = proc;
+        this.config = cfg;
+        this.dist = dir;
+        this.socket = sock;
+        this.data = datadir;
+        this.target = home;
+        this.disposable = erase;
+    }
+
+    /**
+     * Get the process.
+     * @return Process
+     */
+    public Process process() {
+        return this.process;
+    }
+
+    /**
+     * Get its configuration.
+     * @return Configuration
+     */
+    public Config config() {
+        return this.config;
+    }
+
+    /**
+     * Get its data directory.
+     * @return Directory
+     */
+    public File data() {
+        return this.data;
+    }
+
+    /**
+     * Get directory with MySQL distribution.
+     * @return Directory
+     */
+    public File dist() {
+        return this.dist;
+    }
+
+    /**
+     * Get its socket file.
+     * @return Socket file
+     */
+    public File socket() {
+        return this.socket;
+    }
+
+    /**
+     * Get where it keeps logs, pid and socket files.
+     * @return Directory
+     */
+    public File target() {
+        return this.target;
+    }
+
+    /**
+     * Is its data going to be deleted?
+     * @return TRUE if so
+     */
+    public boolean disposable() {
+        return this.disposable;
+    }
+
+    /**
+     * Make a client of it.
+     * @return Client
+     */
+    public Client client() {
+        return new Client(this.dist, this.socket);
+    }
+
+    /**
+     * Stop the server and wait until it exits.
+     * @param budget How long to wait for a graceful stop, in milliseconds
+     */
+    public void shutdown(final long budget) {
+        this.shutdown(budget, this.disposable);
+    }
+
+    /**
+     * Stop the server and wait until it exits.
+     * @param budget How long to wait for a graceful stop, in milliseconds
+     * @param fast Skip flushing of dirty pages, leaving crash recovery
+     *  to the next start?
+     */
+    public void shutdown(final long budget, final boolean fast) {
+        final long start = System.currentTimeMillis();
+        try {
+            if (this.process.isAlive()) {
+                this.gracefully(budget, fast);
+            }
+            if (!this.process.waitFor(Server.GRACE, TimeUnit.MILLISECONDS)) {
+                Logger.warn(
+                    this, "MySQL at %s is still up after %[ms]s, terminating",
+                    this.socket, System.currentTimeMillis() - start
+                );
+                this.process.destroy();
+            }
+            if (!this.process.waitFor(Server.GRACE, TimeUnit.MILLISECONDS)) {
+                Logger.warn(this, "MySQL at %s doesn't stop, killing", this.socket);
+                this.process.destroyForcibly().waitFor();
+            }
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            this.process.destroyForcibly();
+            throw new IllegalStateException(ex);
+        }
+        Logger.info(
+            this, "MySQL at %s stopped in %[ms]s",
+            this.socket, System.currentTimeMillis() - start
+        );
+    }
+
+    /**
+     * Ask the server to shut down and wait for it, within the budget.
+     * @param budget How long to wait, in milliseconds
+     * @param fast Skip flushing of dirty pages?
+     */
+    private void gracefully(final long budget, final boolean fast) {
+        if (fast) {
+            try {
+                this.client().execute(
+                    "SET GLOBAL innodb_fast_shutdown = 2;"
+                );
+            } catch (final IOException | IllegalArgumentException
+                | IllegalStateException ex) {
+                Logger.warn(
+                    this, "Failed to set fast shutdown: %s", ex.getMessage()
+                );
+            }
+        }
+        try {
+            new VerboseProcess(
+                Instances.builder(
+                    this.dist,
+                    "bin/mysqladmin",
+                    Instances.NO_DEFAULTS,
+                    String.format("--user=%s", Instances.DEFAULT_USER),
+                    String.format("--password=%s", Instances.DEFAULT_PASSWORD),
+                    String.format("--socket=%s", this.socket),
+                    String.format(
+                        "--shutdown_timeout=%d",
+                        Math.max(1L, TimeUnit.MILLISECONDS.toSeconds(budget))
+                    ),
+                    "shutdown"
+                ).redirectErrorStream(true)
+            ).stdoutQuietly();
+        } catch (final IllegalStateException ex) {
+            Logger.warn(
+                this, "Failed to run mysqladmin: %s", ex.getMessage()
+            );
+        }
+    }
+
+}
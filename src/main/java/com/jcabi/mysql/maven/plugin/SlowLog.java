@@ -0,0 +1,351 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2012-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.mysql.maven.plugin;
+
+import com.jcabi.log.Logger;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.ToDoubleFunction;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.apache.commons.io.FileUtils;
+
+/**
+ * Slow query log of MySQL server and its digest.
+ *
+ * <p>The log is read line by line, so its size doesn't matter. Every
+ * statement is normalized into a fingerprint, where literals are replaced
+ * with {@code ?}, lists of them are collapsed, comments are dropped and
+ * the case is lowered, and statistics are aggregated by fingerprints.
+ * Only the first {@link #LONGEST} characters of a statement are kept, and
+ * no more than {@link #DISTINCT} fingerprints, the rest of them go to
+ * {@link #OTHER}, so the memory used is limited too.
+ *
+ * <p>The class is immutable and thread-safe.
+ * @since 1.0
+ */
+@ToString
+@EqualsAndHashCode(of = "file")
+final class SlowLog {
+
+    /**
+     * How many characters of a statement to keep.
+     */
+    static final int LONGEST = 64 * 1024;
+
+    /**
+     * How many distinct fingerprints to keep.
+     */
+    static final int DISTINCT = 10_000;
+
+    /**
+     * Fingerprint of statements that didn't fit.
+     */
+    static final String OTHER = "(other)";
+
+    /**
+     * Line with metrics of a statement.
+     */
+    private static final Pattern METRICS = Pattern.compile(
+        // @checkstyle LineLength (1 line)
+        "^# Query_time: ([\\d.]+)\\s+Lock_time: ([\\d.]+)\\s+Rows_sent: (\\d+)\\s+Rows_examined: (\\d+).*"
+    );
+
+    /**
+     * Lines of the log, which are not parts of statements.
+     */
+    private static final Pattern NOISE = Pattern.compile(
+        // @checkstyle LineLength (1 line)
+        "^(SET timestamp=\\d+;|use [^;]+;|.+, Version: .+ started with:|Tcp port: .*|Time +Id +Command +Argument)$"
+    );
+
+    /**
+     * Replacements that make a fingerprint, in order.
+     */
+    private static final Map<Pattern, String> NORMALIZE = SlowLog.rules();
+
+    /**
+     * The log file.
+     */
+    private final transient File file;
+
+    /**
+     * Ctor.
+     * @param path The log file
+     */
+    SlowLog(final File path) {
+        this.file = path;
+    }
+
+    /**
+     * Aggregate statements of the log by fingerprints.
+     * @return Digests, by fingerprint
+     * @throws IOException If fails
+     */
+    public Map<String, SlowLog.Digest> digests() throws IOException {
+        final Map<String, SlowLog.Digest> digests = new HashMap<>(0);
+        try (BufferedReader reader = new BufferedReader(
+            new InputStreamReader(
+                Files.newInputStream(this.file.toPath()), StandardCharsets.UTF_8
+            )
+        )) {
+            double[] metrics = null;
+            final StringBuilder sql = new StringBuilder(0);
+            String line = reader.readLine();
+            while (line != null) {
+                final Matcher matcher = SlowLog.METRICS.matcher(line);
+                if (matcher.matches() || line.startsWith("# ")) {
+                    SlowLog.add(digests, metrics, sql);
+                    metrics = null;
+                    sql.setLength(0);
+                }
+                if (matcher.matches()) {
+                    metrics = new double[] {
+                        Double.parseDouble(matcher.group(1)),
+                        Double.parseDouble(matcher.group(2)),
+                        Double.parseDouble(matcher.group(3)),
+                        Double.parseDouble(matcher.group(4)),
+                    };
+                } else if (metrics != null
+                    && !SlowLog.NOISE.matcher(line).matches()
+                    && sql.length() < SlowLog.LONGEST) {
+                    sql.append(
+                        line, 0, Math.min(line.length(), SlowLog.LONGEST)
+                    ).append('\n');
+                }
+                line = reader.readLine();
+            }
+            SlowLog.add(digests, metrics, sql);
+        }
+        return digests;
+    }
+
+    /**
+     * Save the report with top statements into the file.
+     * @param report Where to save it
+     * @param top How many statements to show in every list
+     * @throws IOException If fails
+     */
+    public void report(final File report, final int top) throws IOException {
+        final long start = System.currentTimeMillis();
+        final Collection<SlowLog.Digest> all = this.digests().values();
+        final StringBuilder text = new StringBuilder(0)
+            .append(
+                String.format(
+                    "%d statement(s) of %d fingerprint(s) in %s\n",
+                    all.stream().mapToLong(digest -> digest.count).sum(),
+                    all.size(), this.file
+                )
+            );
+        SlowLog.section(text, "total time", all, d -> d.time, top);
+        SlowLog.section(text, "count", all, d -> d.count, top);
+        SlowLog.section(text, "rows examined", all, d -> d.examined, top);
+        SlowLog.section(text, "lock time", all, d -> d.lock, top);
+        FileUtils.writeStringToFile(report, text.toString(), StandardCharsets.UTF_8);
+        Logger.info(
+            this, "Digest of %d fingerprint(s) of slow log %s saved into %s in %[ms]s",
+            all.size(), this.file, report, System.currentTimeMillis() - start
+        );
+    }
+
+    /**
+     * Normalize the statement into a fingerprint.
+     * @param sql The statement
+     * @return Fingerprint
+     */
+    static String fingerprint(final String sql) {
+        String print = sql.toLowerCase(Locale.ENGLISH);
+        for (final Map.Entry<Pattern, String> rule
+            : SlowLog.NORMALIZE.entrySet()) {
+            print = rule.getKey().matcher(print).replaceAll(rule.getValue());
+        }
+        return print.trim();
+    }
+
+    /**
+     * Make the replacements of {@link #fingerprint(String)}.
+     * @return Patterns and their replacements, in order
+     */
+    private static Map<Pattern, String> rules() {
+        final Map<Pattern, String> rules = new LinkedHashMap<>(0);
+        rules.put(Pattern.compile("'(?:[^'\\\\]++|\\\\.|'')*+'"), "?");
+        rules.put(
+            Pattern.compile("\"(?:[^\"\\\\]++|\\\\.|\"\")*+\""), "?"
+        );
+        rules.put(Pattern.compile("(?s)/\\*.*?\\*/"), " ");
+        rules.put(Pattern.compile("(?m)(-- |#)[^\\n]*$"), " ");
+        rules.put(Pattern.compile("\\b0x[0-9a-f]+\\b"), "?");
+        rules.put(
+            Pattern.compile("(?<![\\w`$])\\d+(?:\\.\\d+)?(?:e[-+]?\\d+)?\\b"),
+            "?"
+        );
+        rules.put(Pattern.compile("\\s+"), " ");
+        rules.put(
+            Pattern.compile(
+                // @checkstyle LineLength (1 line)
+                "\\b(in|values)\\s*\\(\\s*\\?(?:\\s*,\\s*\\?)*\\s*\\)(?:\\s*,\\s*\\(\\s*\\?(?:\\s*,\\s*\\?)*\\s*\\))*"
+            ),
+            "$1 (?+)"
+        );
+        rules.put(Pattern.compile("\\s*;\\s*$"), "");
+        return rules;
+    }
+
+    /**
+     * Add the statement to the digests.
+     * @param digests Digests, by fingerprint
+     * @param metrics Query time, lock time, rows sent and examined (may
+     *  be NULL if there is no statement)
+     * @param sql Text of the statement
+     */
+    private static void add(final Map<String, SlowLog.Digest> digests,
+        final double[] metrics, final CharSequence sql) {
+        if (metrics != null && sql.length() > 0) {
+            String print = SlowLog.fingerprint(sql.toString());
+            if (!digests.containsKey(print)
+                && digests.size() >= SlowLog.DISTINCT) {
+                print = SlowLog.OTHER;
+            }
+            digests.computeIfAbsent(print, SlowLog.Digest::new).add(metrics);
+        }
+    }
+
+    /**
+     * Append a section of the report.
+     * @param text The report
+     * @param title Title of the section
+     * @param all All digests
+     * @param key What to order them by
+     * @param top How many to show
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    private static void section(final StringBuilder text, final String title,
+        final Collection<SlowLog.Digest> all,
+        final ToDoubleFunction<SlowLog.Digest> key, final int top) {
+        final List<SlowLog.Digest> sorted = new ArrayList<>(all);
+        sorted.sort(Comparator.comparingDouble(key).reversed());
+        text.append(String.format("\nTop %d by %s:\n", top, title)).append(
+            String.format(
+                "%8s %12s %10s %10s %14s %12s  %s\n",
+                "count", "total, s", "avg, ms", "max, ms",
+                "rows examined", "lock, s", "fingerprint"
+            )
+        );
+        for (final SlowLog.Digest digest
+            : sorted.subList(0, Math.min(top, sorted.size()))) {
+            text.append(
+                String.format(
+                    Locale.ENGLISH, "%8d %12.3f %10.3f %10.3f %14d %12.3f  %s\n",
+                    digest.count, digest.time,
+                    digest.time * 1000.0d / digest.count, digest.max * 1000.0d,
+                    digest.examined, digest.lock, digest.fingerprint
+                )
+            );
+        }
+    }
+
+    /**
+     * Statistics of statements with the same fingerprint.
+     * @since 1.0
+     */
+    @ToString
+    @EqualsAndHashCode(of = "fingerprint")
+    static final class Digest {
+        /**
+         * The fingerprint.
+         */
+        private final transient String fingerprint;
+
+        /**
+         * How many statements.
+         */
+        private transient long count;
+
+        /**
+         * Total query time, in seconds.
+         */
+        private transient double time;
+
+        /**
+         * Longest query time, in seconds.
+         */
+        private transient double max;
+
+        /**
+         * Total lock time, in seconds.
+         */
+        private transient double lock;
+
+        /**
+         * Total rows sent.
+         */
+        private transient long sent;
+
+        /**
+         * Total rows examined.
+         */
+        private transient long examined;
+
+        /**
+         * Ctor.
+         * @param print The fingerprint
+         */
+        Digest(final String print) {
+            this.fingerprint = print;
+        }
+
+        /**
+         * How many statements there were.
+         * @return Count
+         */
+        public long count() {
+            return this.count;
+        }
+
+        /**
+         * Total query time.
+         * @return Seconds
+         */
+        public double time() {
+            return this.time;
+        }
+
+        /**
+         * Total rows sent.
+         * @return Rows
+         */
+        public long sent() {
+            return this.sent;
+        }
+
+        /**
+         * Add a statement.
+         * @param metrics Query time, lock time, rows sent and examined
+         */
+        void add(final double[] metrics) {
+            ++this.count;
+            this.time += metrics[0];
+            this.max = Math.max(this.max, metrics[0]);
+            this.lock += metrics[1];
+            this.sent += (long) metrics[2];
+            this.examined += (long) metrics[3];
+        }
+    }
+
+}
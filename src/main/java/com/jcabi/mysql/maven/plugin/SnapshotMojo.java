@@ -0,0 +1,49 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2012-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.mysql.maven.plugin;
+
+import java.io.IOException;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+
+/**
+ * Saves the data of a running MySQL into the checkpoint.
+ *
+ * <p>The server is stopped, its data directory is cloned into
+ * {@code checkpoint} directory, and the server is started again, at
+ * the same port. Use {@code restore} goal later to get back to this
+ * state, for example between failsafe executions.
+ *
+ * @since 1.0
+ */
+@ToString
+@EqualsAndHashCode(callSuper = false)
+@Mojo(
+    threadSafe = true, name = "snapshot",
+    defaultPhase = LifecyclePhase.PRE_INTEGRATION_TEST
+)
+public final class SnapshotMojo extends AbstractMysqlMojo {
+
+    @Override
+    public void run(final Instances instances) throws MojoFailureException {
+        for (final Config config : this.configs()) {
+            try {
+                instances.snapshot(config.port(), this.checkpointDir(config));
+            } catch (final IOException ex) {
+                throw new MojoFailureException(
+                    String.format(
+                        "failed to save a checkpoint of MySQL at %d port",
+                        config.port()
+                    ),
+                    ex
+                );
+            }
+        }
+    }
+
+}
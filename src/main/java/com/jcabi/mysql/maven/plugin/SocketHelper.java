@@ -4,18 +4,55 @@
  */
 package com.jcabi.mysql.maven.plugin;
 
+import java.io.File;
 import java.io.IOException;
-import java.net.Socket;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ProtocolFamily;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
 
 /**
  * Extracted static helper function into its own class to reduce class
  * complexity of Instances (TooManyMethods).
  *
+ * <p>A port or a socket is considered open only when a MySQL server
+ * is listening there: the probe connects without blocking, reads the
+ * initial handshake packet, validates it and closes the channel. Unix
+ * domain sockets are supported only on JDK 16+, where the plugin finds
+ * them by reflection, since it is compiled for Java 8.
+ *
  * <p>The class is thread-safe.
  * @since 0.6
  */
 final class SocketHelper {
 
+    /**
+     * Default timeout of one probe, in milliseconds.
+     */
+    static final long TIMEOUT = 500L;
+
+    /**
+     * Protocol version in the initial handshake packet.
+     */
+    private static final byte PROTOCOL = 10;
+
+    /**
+     * Size of the packet header.
+     */
+    private static final int HEADER = 4;
+
+    /**
+     * How many bytes of the payload to read, at most.
+     */
+    private static final int PAYLOAD = 64;
+
     /**
      * Utility class should not be instantiated.
      */
@@ -27,14 +64,169 @@ final class SocketHelper {
      * @return TRUE if it's open
      */
     static boolean isOpen(final int port) {
+        return SocketHelper.isOpen(port, SocketHelper.TIMEOUT);
+    }
+
+    /**
+     * Port is open and MySQL is behind it.
+     * @param port The port to check
+     * @param timeout Timeout of the probe, in milliseconds
+     * @return TRUE if it's open
+     */
+    static boolean isOpen(final int port, final long timeout) {
         boolean open;
-        try {
-            new Socket((String) null, port);
-            open = true;
+        try (SocketChannel channel = SocketChannel.open()) {
+            open = SocketHelper.probe(
+                channel,
+                new InetSocketAddress(InetAddress.getLoopbackAddress(), port),
+                timeout
+            );
         } catch (final IOException ex) {
             open = false;
         }
         return open;
     }
 
+    /**
+     * Unix domain socket is open and MySQL is behind it.
+     *
+     * <p>Always FALSE on JDK older than 16.
+     * @param socket The socket file to check
+     * @param timeout Timeout of the probe, in milliseconds
+     * @return TRUE if it's open
+     */
+    static boolean isOpen(final File socket, final long timeout) {
+        boolean open = false;
+        if (socket.exists() && SocketHelper.unix()) {
+            try (SocketChannel channel = SocketHelper.channel()) {
+                open = SocketHelper.probe(
+                    channel, SocketHelper.address(socket), timeout
+                );
+            } catch (final IOException ex) {
+                open = false;
+            }
+        }
+        return open;
+    }
+
+    /**
+     * Unix domain sockets are supported by this JDK.
+     * @return TRUE if supported
+     */
+    static boolean unix() {
+        boolean found;
+        try {
+            Class.forName("java.net.UnixDomainSocketAddress");
+            found = true;
+        } catch (final ClassNotFoundException ex) {
+            found = false;
+        }
+        return found;
+    }
+
+    /**
+     * Connect without blocking and validate the initial handshake.
+     * @param channel The channel, not connected yet
+     * @param address Where to connect
+     * @param timeout Timeout, in milliseconds
+     * @return TRUE if MySQL is there
+     * @throws IOException If fails
+     */
+    private static boolean probe(final SocketChannel channel,
+        final SocketAddress address, final long timeout) throws IOException {
+        final long deadline = System.currentTimeMillis() + timeout;
+        channel.configureBlocking(false);
+        boolean valid = false;
+        try (Selector selector = Selector.open()) {
+            final SelectionKey key;
+            if (channel.connect(address)) {
+                key = channel.register(selector, SelectionKey.OP_READ);
+            } else {
+                key = channel.register(selector, SelectionKey.OP_CONNECT);
+            }
+            final ByteBuffer buf = ByteBuffer.allocate(
+                SocketHelper.HEADER + SocketHelper.PAYLOAD
+            );
+            while (!valid) {
+                final long left = deadline - System.currentTimeMillis();
+                if (left <= 0L || selector.select(left) == 0) {
+                    break;
+                }
+                selector.selectedKeys().clear();
+                if (key.isConnectable()) {
+                    channel.finishConnect();
+                    key.interestOps(SelectionKey.OP_READ);
+                } else if (channel.read(buf) < 0) {
+                    break;
+                } else {
+                    valid = SocketHelper.handshake(buf);
+                }
+            }
+        }
+        return valid;
+    }
+
+    /**
+     * The buffer contains a valid initial handshake packet.
+     * @param buf The buffer, in write mode
+     * @return TRUE if it's a complete enough handshake
+     */
+    private static boolean handshake(final ByteBuffer buf) {
+        boolean valid = false;
+        if (buf.position() > SocketHelper.HEADER) {
+            final int length = (buf.get(0) & 0xff)
+                | (buf.get(1) & 0xff) << 8
+                | (buf.get(2) & 0xff) << 16;
+            final boolean header = buf.get(3) == 0 && length > 1
+                && buf.get(SocketHelper.HEADER) == SocketHelper.PROTOCOL;
+            if (header) {
+                for (int pos = SocketHelper.HEADER + 1; pos < buf.position();
+                    ++pos) {
+                    if (buf.get(pos) == 0) {
+                        valid = true;
+                        break;
+                    }
+                }
+            }
+        }
+        return valid;
+    }
+
+    /**
+     * Open Unix domain socket channel, by reflection.
+     * @return The channel
+     * @throws IOException If fails
+     */
+    private static SocketChannel channel() throws IOException {
+        try {
+            final Method open = SocketChannel.class.getMethod(
+                "open", ProtocolFamily.class
+            );
+            return (SocketChannel) open.invoke(
+                null, StandardProtocolFamily.valueOf("UNIX")
+            );
+        } catch (final NoSuchMethodException | IllegalAccessException
+            | InvocationTargetException ex) {
+            throw new IOException(ex);
+        }
+    }
+
+    /**
+     * Make Unix domain socket address, by reflection.
+     * @param socket The socket file
+     * @return The address
+     * @throws IOException If fails
+     */
+    private static SocketAddress address(final File socket)
+        throws IOException {
+        try {
+            return (SocketAddress) Class.forName(
+                "java.net.UnixDomainSocketAddress"
+            ).getMethod("of", String.class).invoke(null, socket.getPath());
+        } catch (final ClassNotFoundException | NoSuchMethodException
+            | IllegalAccessException | InvocationTargetException ex) {
+            throw new IOException(ex);
+        }
+    }
+
 }
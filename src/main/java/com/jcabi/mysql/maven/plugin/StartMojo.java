@@ -10,9 +10,13 @@ import lombok.ToString;
 import org.apache.maven.plugin.MojoFailureException;
 import org.apache.maven.plugins.annotations.LifecyclePhase;
 import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
 
 /**
  * Starts MySQL.
+ *
+ * <p>With {@code async} it only launches the start in the background,
+ * and {@code await} goal waits for it later, see {@link AwaitMojo}.
  * @since 0.1
  */
 @ToString
@@ -23,16 +27,38 @@ import org.apache.maven.plugins.annotations.Mojo;
 )
 public final class StartMojo extends AbstractMysqlMojo {
 
+    /**
+     * Start in the background and return right away?
+     *
+     * <p>Bind the goal to an early phase, like {@code initialize}, and
+     * {@code await} goal to {@code pre-integration-test}: preparation of
+     * the data directory and the boot of MySQL go on while the build
+     * compiles and runs unit tests, and {@code await} blocks only for
+     * what's left of it.
+     * @since 1.0
+     */
+    @Parameter(
+        defaultValue = "false",
+        property = "jcabi.mysql.async",
+        required = false
+    )
+    private transient boolean async;
+
     @Override
     public void run(final Instances instances) throws MojoFailureException {
         try {
-            instances.start(
-                this.config(),
-                this.distDir(),
-                this.dataDir(),
-                this.clear(),
-                this.socketFile()
-            );
+            if (this.leased() && !this.multiple()) {
+                this.publish(
+                    AbstractMysqlMojo.PROPERTY_PORT,
+                    Integer.toString(
+                        new Lease(this.daemonFile()).take(this.config())
+                    )
+                );
+            } else if (this.async) {
+                this.background(instances);
+            } else {
+                this.startup(instances);
+            }
         } catch (final IOException ex) {
             throw new MojoFailureException(
                 "failed to start MySQL server", ex
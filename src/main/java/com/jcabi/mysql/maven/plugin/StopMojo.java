@@ -4,6 +4,8 @@
  */
 package com.jcabi.mysql.maven.plugin;
 
+import com.jcabi.log.Logger;
+import java.io.IOException;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
 import org.apache.maven.plugin.MojoFailureException;
@@ -25,7 +27,29 @@ public final class StopMojo extends AbstractMysqlMojo {
 
     @Override
     public void run(final Instances instances) throws MojoFailureException {
-        instances.stop(this.config().port());
+        final String port = this.published(AbstractMysqlMojo.PROPERTY_PORT);
+        if (this.leased() && !this.multiple() && port == null) {
+            Logger.warn(
+                this, "No MySQL server to give back to the daemon"
+            );
+        } else if (this.leased() && !this.multiple()) {
+            try {
+                new Lease(this.daemonFile()).give(Integer.parseInt(port));
+            } catch (final IOException ex) {
+                throw new MojoFailureException(
+                    "failed to give MySQL server back to the daemon", ex
+                );
+            }
+        } else {
+            try {
+                this.join();
+            } catch (final MojoFailureException ex) {
+                Logger.warn(this, "%s", ex.getMessage());
+            }
+            for (final Config config : this.configs()) {
+                instances.stop(config.port());
+            }
+        }
     }
 
 }
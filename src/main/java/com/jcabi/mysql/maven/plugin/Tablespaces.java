@@ -0,0 +1,341 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2012-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.mysql.maven.plugin;
+
+import com.jcabi.log.Logger;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.Map;
+import java.util.regex.Pattern;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * Copies of a database in the same running server, made of its
+ * tablespace files.
+ *
+ * <p>For every copy, the tables are created with the same DDL and their
+ * tablespaces are discarded. Then all InnoDB tables of the source are
+ * locked by {@code FLUSH TABLES ... FOR EXPORT}, their {@code .ibd} and
+ * {@code .cfg} files (with partitions) are copied into the directories of
+ * the copies, and the lock is released. Finally, the tablespaces are
+ * imported by {@code ALTER TABLE ... IMPORT TABLESPACE}. No SQL of the
+ * source is replayed, so it takes as long as copying of the files.
+ * Tables of other engines are copied by {@code INSERT ... SELECT}.
+ *
+ * <p>Views, routines and triggers are not copied.
+ *
+ * <p>The class is immutable and thread-safe.
+ * @since 1.0
+ */
+@ToString
+@EqualsAndHashCode(of = { "client", "data" })
+final class Tablespaces {
+
+    /**
+     * Client of the server.
+     */
+    private final transient Client client;
+
+    /**
+     * Data directory of the server.
+     */
+    private final transient File data;
+
+    /**
+     * Ctor.
+     * @param clnt Client of the server
+     * @param dir Data directory of the server
+     */
+    Tablespaces(final Client clnt, final File dir) {
+        this.client = clnt;
+        this.data = dir;
+    }
+
+    /**
+     * Copy the database.
+     * @param config Configuration of the instance, with the database to
+     *  copy and the user to grant access to the copies
+     * @param targets Names of the copies, which are dropped first if exist
+     * @throws IOException If fails
+     */
+    public void copy(final Config config, final Collection<String> targets)
+        throws IOException {
+        final String source = config.dbname();
+        final long start = System.currentTimeMillis();
+        final Map<String, Boolean> tables = this.tables(source);
+        final Map<String, String> ddl = new LinkedHashMap<>(tables.size());
+        for (final String table : tables.keySet()) {
+            ddl.put(table, this.ddl(source, table));
+        }
+        for (final String target : targets) {
+            this.client.execute(
+                Tablespaces.prepare(config, target, tables, ddl)
+            );
+        }
+        final Collection<String> innodb = new LinkedList<>();
+        for (final Map.Entry<String, Boolean> entry : tables.entrySet()) {
+            if (entry.getValue()) {
+                innodb.add(
+                    String.format(
+                        "%s.%s", Bootstrap.quote(source),
+                        Bootstrap.quote(entry.getKey())
+                    )
+                );
+            }
+        }
+        if (!innodb.isEmpty()) {
+            this.client.hold(
+                String.format(
+                    "FLUSH TABLES %s FOR EXPORT;", String.join(", ", innodb)
+                ),
+                () -> this.files(source, targets, tables)
+            );
+            for (final String target : targets) {
+                this.client.execute(Tablespaces.load(target, tables));
+            }
+        }
+        Logger.info(
+            this, "Database '%s' with %d table(s) copied into %s in %[ms]s",
+            source, tables.size(), targets, System.currentTimeMillis() - start
+        );
+    }
+
+    /**
+     * Unescape a value printed by the client in batch mode.
+     * @param text Escaped text
+     * @return Original text
+     */
+    static String unescape(final String text) {
+        final StringBuilder out = new StringBuilder(text.length());
+        for (int idx = 0; idx < text.length(); ++idx) {
+            final char chr = text.charAt(idx);
+            if (chr == '\\' && idx + 1 < text.length()) {
+                ++idx;
+                final char next = text.charAt(idx);
+                if (next == 'n') {
+                    out.append('\n');
+                } else if (next == 't') {
+                    out.append('\t');
+                } else if (next == '0') {
+                    out.append('\0');
+                } else {
+                    out.append(next);
+                }
+            } else {
+                out.append(chr);
+            }
+        }
+        return out.toString();
+    }
+
+    /**
+     * Encode a name of a database or a table the way MySQL does it for
+     * names of directories and files: ASCII letters, digits and
+     * underscores stay as they are, other characters become {@code @}
+     * and four hex digits of their code, like {@code @002d} for a dash.
+     * MySQL encodes some non-ASCII letters shorter, so names with them
+     * are not found.
+     * @param name The name
+     * @return Name of the directory or the file
+     */
+    static String filename(final String name) {
+        final StringBuilder out = new StringBuilder(name.length());
+        for (int idx = 0; idx < name.length(); ++idx) {
+            final char chr = name.charAt(idx);
+            if ((chr >= 'a' && chr <= 'z') || (chr >= 'A' && chr <= 'Z')
+                || (chr >= '0' && chr <= '9') || chr == '_') {
+                out.append(chr);
+            } else {
+                out.append(String.format("@%04x", (int) chr));
+            }
+        }
+        return out.toString();
+    }
+
+    /**
+     * Find base tables of the database.
+     * @param source The database
+     * @return Names of tables, and whether they are InnoDB ones
+     * @throws IOException If fails
+     */
+    private Map<String, Boolean> tables(final String source)
+        throws IOException {
+        final Map<String, Boolean> tables = new LinkedHashMap<>(0);
+        final String output = this.client.execute(
+            String.format(
+                String.join(
+                    " ",
+                    "SELECT TABLE_NAME, ENGINE FROM information_schema.TABLES",
+                    "WHERE TABLE_SCHEMA = '%s' AND TABLE_TYPE = 'BASE TABLE';"
+                ),
+                Bootstrap.escape(source)
+            )
+        );
+        for (final String line : output.split("\n")) {
+            final String[] parts = line.split("\t");
+            if (parts.length == 2) {
+                tables.put(
+                    Tablespaces.unescape(parts[0]),
+                    "InnoDB".equalsIgnoreCase(parts[1].trim())
+                );
+            }
+        }
+        return tables;
+    }
+
+    /**
+     * Get DDL of the table.
+     * @param source The database
+     * @param table The table
+     * @return CREATE TABLE statement
+     * @throws IOException If fails
+     */
+    private String ddl(final String source, final String table)
+        throws IOException {
+        final String output = this.client.execute(
+            String.format(
+                "SHOW CREATE TABLE %s.%s;",
+                Bootstrap.quote(source), Bootstrap.quote(table)
+            )
+        ).trim();
+        final int tab = output.indexOf('\t');
+        if (tab < 0) {
+            throw new IOException(
+                String.format(
+                    "Can't get DDL of `%s`.`%s`: %s", source, table, output
+                )
+            );
+        }
+        return Tablespaces.unescape(output.substring(tab + 1));
+    }
+
+    /**
+     * Copy tablespace files of the locked source into the copies.
+     * @param source The database
+     * @param targets Names of the copies
+     * @param tables Tables of the database
+     * @throws IOException If fails
+     */
+    private void files(final String source, final Collection<String> targets,
+        final Map<String, Boolean> tables) throws IOException {
+        final Path dir = new File(this.data, Tablespaces.filename(source))
+            .toPath();
+        final Collection<Pattern> patterns = new LinkedList<>();
+        for (final Map.Entry<String, Boolean> entry : tables.entrySet()) {
+            if (entry.getValue()) {
+                patterns.add(
+                    Pattern.compile(
+                        String.format(
+                            "%s(#[pP]#.+)?\\.(ibd|cfg)",
+                            Pattern.quote(Tablespaces.filename(entry.getKey()))
+                        )
+                    )
+                );
+            }
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir)) {
+            for (final Path file : files) {
+                final String name = file.getFileName().toString();
+                if (patterns.stream()
+                    .anyMatch(ptn -> ptn.matcher(name).matches())) {
+                    for (final String target : targets) {
+                        Files.copy(
+                            file,
+                            new File(this.data, Tablespaces.filename(target))
+                                .toPath().resolve(name),
+                            StandardCopyOption.REPLACE_EXISTING
+                        );
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Make SQL that creates a copy with discarded tablespaces.
+     * @param config Configuration of the instance, with the database and
+     *  the user to grant access to the copy
+     * @param target Name of the copy
+     * @param tables Tables of the database
+     * @param ddl DDL of tables
+     * @return SQL
+     */
+    private static String prepare(final Config config, final String target,
+        final Map<String, Boolean> tables, final Map<String, String> ddl) {
+        final StringBuilder sql = new StringBuilder(0)
+            .append("SET FOREIGN_KEY_CHECKS = 0;\n")
+            .append(
+                String.format(
+                    "DROP DATABASE IF EXISTS %s;\n", Bootstrap.quote(target)
+                )
+            )
+            .append(
+                String.format("CREATE DATABASE %s;\n", Bootstrap.quote(target))
+            )
+            .append(String.format("USE %s;\n", Bootstrap.quote(target)));
+        for (final Map.Entry<String, Boolean> entry : tables.entrySet()) {
+            sql.append(ddl.get(entry.getKey())).append(";\n");
+            if (entry.getValue()) {
+                sql.append(
+                    String.format(
+                        "ALTER TABLE %s DISCARD TABLESPACE;\n",
+                        Bootstrap.quote(entry.getKey())
+                    )
+                );
+            } else {
+                sql.append(
+                    String.format(
+                        "INSERT INTO %1$s SELECT * FROM %2$s.%1$s;\n",
+                        Bootstrap.quote(entry.getKey()),
+                        Bootstrap.quote(config.dbname())
+                    )
+                );
+            }
+        }
+        if (!Instances.DEFAULT_USER.equals(config.user())) {
+            sql.append(
+                String.format(
+                    "GRANT ALL ON %s.* TO '%s'@'%s';\n",
+                    Bootstrap.quote(target), Bootstrap.escape(config.user()),
+                    Instances.host(config)
+                )
+            );
+        }
+        return sql.toString();
+    }
+
+    /**
+     * Make SQL that imports tablespaces of a copy.
+     * @param target Name of the copy
+     * @param tables Tables of the database
+     * @return SQL
+     */
+    private static String load(final String target,
+        final Map<String, Boolean> tables) {
+        final StringBuilder sql = new StringBuilder(0)
+            .append("SET FOREIGN_KEY_CHECKS = 0;\n")
+            .append(String.format("USE %s;\n", Bootstrap.quote(target)));
+        for (final Map.Entry<String, Boolean> entry : tables.entrySet()) {
+            if (entry.getValue()) {
+                sql.append(
+                    String.format(
+                        "ALTER TABLE %s IMPORT TABLESPACE;\n",
+                        Bootstrap.quote(entry.getKey())
+                    )
+                );
+            }
+        }
+        return sql.toString();
+    }
+
+}
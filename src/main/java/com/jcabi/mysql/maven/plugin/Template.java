@@ -0,0 +1,175 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2012-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.mysql.maven.plugin;
+
+import com.jcabi.log.Logger;
+import java.io.File;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.apache.commons.io.FileUtils;
+
+/**
+ * Snapshot of a data directory with SQL scripts applied.
+ *
+ * <p>Scripts, usually DDL migrations, are applied once to a fresh
+ * instance, which is then stopped. Its data directory is stored in
+ * the {@link DataCache}, keyed by the content of the scripts, the
+ * configuration of the instance and the distribution. Next time the data
+ * directory is populated from the snapshot and the scripts are not
+ * executed at all.
+ *
+ * <p>The class is thread-safe.
+ * @since 1.0
+ */
+@ToString
+@EqualsAndHashCode(of = { "root", "scripts" })
+final class Template {
+
+    /**
+     * Directory with snapshots.
+     */
+    private final transient File root;
+
+    /**
+     * SQL scripts to apply, in this order.
+     */
+    private final transient List<File> scripts;
+
+    /**
+     * Ctor.
+     * @param dir Directory with snapshots
+     * @param sqls SQL scripts to apply, in this order
+     */
+    Template(final File dir, final List<File> sqls) {
+        this.root = dir;
+        this.scripts = sqls;
+    }
+
+    /**
+     * Populate the data directory of the instance from the snapshot,
+     * unless it's already there and may be reused.
+     * @param instances Instances, to boot a new snapshot
+     * @param config Instance configuration
+     * @param dist Directory with MySQL distribution
+     * @param target Where the instance keeps its data
+     * @param deldir If existing data directory should be deleted
+     * @return TRUE if the data directory was populated from the snapshot,
+     *  FALSE if the existing one is kept
+     * @throws IOException If fails
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    public boolean populate(final Instances instances, final Config config,
+        final File dist, final File target, final boolean deldir)
+        throws IOException {
+        if (deldir) {
+            FileUtils.deleteDirectory(target);
+        }
+        final File data = new File(target, "data");
+        final boolean restored = !data.exists();
+        if (restored) {
+            new DataCache(this.root).populate(
+                dist, this.key(config),
+                dir -> this.snapshot(instances, config, dist, dir),
+                data
+            );
+        }
+        return restored;
+    }
+
+    /**
+     * Boot an instance, apply scripts, stop it and move its data.
+     *
+     * <p>The instance is not disposable, even though its directory is
+     * temporary, so that it's stopped with a slow shutdown and the
+     * snapshot needs no crash recovery, see {@link Server}. Its data stays
+     * on disk, even if the configuration is ephemeral, and its status and
+     * slow queries are not recorded.
+     * @param instances Instances
+     * @param config Instance configuration
+     * @param dist Directory with MySQL distribution
+     * @param dir Where to put the data directory
+     * @throws IOException If fails
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    private void snapshot(final Instances instances, final Config config,
+        final File dist, final File dir) throws IOException {
+        final File temp = Files.createTempDirectory("jcabi-mysql").toFile();
+        try {
+            final int port = instances.start(
+                config.withPort(Instances.AUTO).withEphemeral(null)
+                    .withSampling(0L).withSlowLog(-1.0d),
+                dist, temp, false, null
+            ).port();
+            try {
+                final Client client = new Client(
+                    dist, new File(temp, "mysql.sock")
+                );
+                for (final File script : this.scripts) {
+                    final long start = System.currentTimeMillis();
+                    client.execute(
+                        String.format(
+                            "USE %s;\n%s",
+                            Bootstrap.quote(config.dbname()),
+                            FileUtils.readFileToString(
+                                script, StandardCharsets.UTF_8
+                            )
+                        )
+                    );
+                    Logger.info(
+                        this, "Script %s applied in %[ms]s",
+                        script, System.currentTimeMillis() - start
+                    );
+                }
+            } finally {
+                instances.stop(port);
+            }
+            FileUtils.moveDirectory(new File(temp, "data"), dir);
+        } finally {
+            FileUtils.deleteQuietly(temp);
+        }
+    }
+
+    /**
+     * Key of the snapshot.
+     * @param config Instance configuration
+     * @return Arguments for {@link DataCache}
+     * @throws IOException If fails
+     */
+    private List<String> key(final Config config) throws IOException {
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (final NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+        final List<String> args = new ArrayList<>(0);
+        for (final File script : this.scripts) {
+            args.add(
+                String.format(
+                    "%064x",
+                    new BigInteger(
+                        1, digest.digest(Files.readAllBytes(script.toPath()))
+                    )
+                )
+            );
+        }
+        args.add(config.dbname());
+        args.add(config.user());
+        args.add(config.password());
+        args.add(Instances.host(config));
+        args.add(String.valueOf(config.profile()));
+        args.addAll(config.options());
+        return args;
+    }
+
+}
@@ -0,0 +1,334 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2012-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.mysql.maven.plugin;
+
+import com.jcabi.log.Logger;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.apache.commons.io.FileUtils;
+
+/**
+ * Timeline of a starting MySQL server.
+ *
+ * <p>Phases of {@link Instances} are measured by the plugin itself, while
+ * boot milestones of {@code mysqld} are taken from timestamps of its log
+ * lines, which this class consumes, either while the server boots or
+ * from its log files later. Lines older than the timeline are ignored, and
+ * the latest occurrence of a milestone wins, so lines of previous runs,
+ * which stay in the appended files, and of {@code mysqld --initialize}
+ * don't matter. Durations of phases and of the spans
+ * between milestones are available by name, for example
+ * {@code readiness} or {@code mysqld.innodb}. The timelines of many
+ * servers can be saved as a Chrome trace-event JSON file, to be opened
+ * in {@code chrome://tracing} or Perfetto.
+ *
+ * <p>The class is thread-safe.
+ * @since 1.0
+ */
+@ToString(of = "phases")
+@EqualsAndHashCode(of = { "phases", "milestones" })
+final class Timeline implements Consumer<String> {
+
+    /**
+     * Timestamp at the beginning of a log line.
+     */
+    private static final Pattern STAMP = Pattern.compile(
+        "^(\\d{4}-\\d{2}-\\d{2}T\\d{2}:\\d{2}:\\d{2}(\\.\\d+)?(Z|[+-]\\d{2}:\\d{2}))\\s"
+    );
+
+    /**
+     * Milestones of mysqld: name and the pattern of its log line.
+     */
+    private static final Map<String, Pattern> MARKS = Timeline.marks();
+
+    /**
+     * Spans between milestones: name, first and last milestone.
+     */
+    private static final String[][] SPANS = {
+        {"mysqld.innodb", "innodb.start", "innodb.end"},
+        {"mysqld.boot", "starting", "ready"},
+    };
+
+    /**
+     * When the timeline started, in milliseconds since epoch.
+     */
+    private final transient long origin;
+
+    /**
+     * Phases measured: name, start and duration, in milliseconds.
+     */
+    private final transient Collection<Timeline.Phase> phases;
+
+    /**
+     * Milestones of mysqld, in milliseconds since epoch.
+     */
+    private final transient ConcurrentMap<String, Long> milestones;
+
+    /**
+     * Ctor.
+     */
+    Timeline() {
+        this.origin = System.currentTimeMillis();
+        this.phases = new CopyOnWriteArrayList<>();
+        this.milestones = new ConcurrentHashMap<>(0);
+    }
+
+    @Override
+    public void accept(final String line) {
+        final Matcher matcher = Timeline.STAMP.matcher(line);
+        if (matcher.find()) {
+            for (final Map.Entry<String, Pattern> mark
+                : Timeline.MARKS.entrySet()) {
+                if (mark.getValue().matcher(line).find()) {
+                    this.mark(mark.getKey(), matcher.group(1));
+                }
+            }
+        }
+    }
+
+    /**
+     * Consume all lines of the log file, if it exists.
+     * @param log The file
+     * @throws IOException If fails
+     */
+    public void read(final File log) throws IOException {
+        if (log.exists()) {
+            try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(
+                    Files.newInputStream(log.toPath()), StandardCharsets.UTF_8
+                )
+            )) {
+                String line = reader.readLine();
+                while (line != null) {
+                    this.accept(line);
+                    line = reader.readLine();
+                }
+            }
+        }
+    }
+
+    /**
+     * Measure a phase.
+     * @param name Name of the phase
+     * @param action What to do
+     * @param <T> Type of result
+     * @return Result of the action
+     * @throws IOException If fails
+     */
+    public <T> T measure(final String name, final Timeline.Action<T> action)
+        throws IOException {
+        final long start = System.currentTimeMillis();
+        try {
+            return action.run();
+        } finally {
+            this.record(name, start);
+        }
+    }
+
+    /**
+     * Record a phase, which started at the given time and is over now.
+     * @param name Name of the phase
+     * @param start When it started, in milliseconds since epoch
+     */
+    public void record(final String name, final long start) {
+        this.phases.add(
+            new Timeline.Phase(name, start, System.currentTimeMillis() - start)
+        );
+    }
+
+    /**
+     * Durations of phases and of spans between milestones.
+     * @return Milliseconds by name, in order
+     */
+    public Map<String, Long> durations() {
+        final Map<String, Long> all = new LinkedHashMap<>(0);
+        for (final Timeline.Phase phase : this.phases) {
+            all.merge(phase.name, phase.msec, Long::sum);
+        }
+        for (final Timeline.Phase span : this.spans()) {
+            all.put(span.name, span.msec);
+        }
+        return all;
+    }
+
+    /**
+     * Save timelines as Chrome trace-event JSON file.
+     * @param file Where to save
+     * @param timelines Timelines, by port, which is used as process ID
+     * @throws IOException If fails
+     */
+    public static void save(final File file,
+        final Map<Integer, Timeline> timelines) throws IOException {
+        final Collection<String> events = new LinkedList<>();
+        for (final Map.Entry<Integer, Timeline> entry : timelines.entrySet()) {
+            events.add(
+                String.format(
+                    String.join(
+                        "",
+                        "{\"name\":\"process_name\",\"ph\":\"M\",",
+                        "\"pid\":%d,\"args\":{\"name\":\"MySQL at %1$d\"}}"
+                    ),
+                    entry.getKey()
+                )
+            );
+            for (final Timeline.Phase phase : entry.getValue().phases) {
+                events.add(phase.event(entry.getKey(), 1));
+            }
+            for (final Timeline.Phase span : entry.getValue().spans()) {
+                events.add(span.event(entry.getKey(), 2));
+            }
+        }
+        FileUtils.writeStringToFile(
+            file,
+            String.format(
+                "{\"displayTimeUnit\":\"ms\",\"traceEvents\":[\n%s\n]}\n",
+                String.join(",\n", events)
+            ),
+            StandardCharsets.UTF_8
+        );
+    }
+
+    /**
+     * Remember the milestone, unless it's older than the timeline. A line
+     * with a broken timestamp is ignored, since this runs on the thread
+     * that forwards the output of mysqld.
+     * @param name Name of the milestone
+     * @param stamp Timestamp of its log line
+     */
+    private void mark(final String name, final String stamp) {
+        try {
+            final long time = OffsetDateTime.parse(stamp)
+                .toInstant().toEpochMilli();
+            if (time >= this.origin) {
+                this.milestones.merge(name, time, Math::max);
+            }
+        } catch (final DateTimeParseException ex) {
+            Logger.debug(
+                this, "Can't parse timestamp '%s' of the '%s' milestone: %s",
+                stamp, name, ex.getMessage()
+            );
+        }
+    }
+
+    /**
+     * Spans between milestones.
+     * @return Spans found
+     */
+    private Collection<Timeline.Phase> spans() {
+        final Collection<Timeline.Phase> spans = new LinkedList<>();
+        for (final String[] span : Timeline.SPANS) {
+            final Long first = this.milestones.get(span[1]);
+            final Long last = this.milestones.get(span[2]);
+            if (first != null && last != null) {
+                spans.add(new Timeline.Phase(span[0], first, last - first));
+            }
+        }
+        return spans;
+    }
+
+    /**
+     * Make the milestones of mysqld. The "ready" one is anchored on the
+     * line of mysqld itself, like in {@link Readiness}, since the X Plugin
+     * prints "ready for connections" too.
+     * @return Names and patterns of their log lines
+     */
+    private static Map<String, Pattern> marks() {
+        final Map<String, Pattern> marks = new LinkedHashMap<>(0);
+        marks.put("starting", Pattern.compile("starting as process"));
+        marks.put(
+            "innodb.start", Pattern.compile("InnoDB initialization has started")
+        );
+        marks.put(
+            "innodb.end", Pattern.compile("InnoDB initialization has ended")
+        );
+        marks.put("ready", Readiness.READY);
+        return marks;
+    }
+
+    /**
+     * Action to measure.
+     * @param <T> Type of result
+     * @since 1.0
+     */
+    interface Action<T> {
+        /**
+         * Do it.
+         * @return Result
+         * @throws IOException If fails
+         */
+        T run() throws IOException;
+    }
+
+    /**
+     * Measured phase.
+     * @since 1.0
+     */
+    @ToString
+    @EqualsAndHashCode
+    private static final class Phase {
+        /**
+         * Name.
+         */
+        private final transient String name;
+
+        /**
+         * Start, in milliseconds since epoch.
+         */
+        private final transient long start;
+
+        /**
+         * Duration, in milliseconds.
+         */
+        private final transient long msec;
+
+        /**
+         * Ctor.
+         * @param label Name
+         * @param begin Start, in milliseconds since epoch
+         * @param duration Duration, in milliseconds
+         */
+        Phase(final String label, final long begin, final long duration) {
+            this.name = label;
+            this.start = begin;
+            this.msec = duration;
+        }
+
+        /**
+         * Make a complete trace event.
+         * @param pid Process ID
+         * @param tid Thread ID
+         * @return JSON
+         */
+        String event(final int pid, final int tid) {
+            return String.format(
+                String.join(
+                    "",
+                    "{\"name\":\"%s\",\"cat\":\"jcabi-mysql\",\"ph\":\"X\",",
+                    "\"ts\":%d,\"dur\":%d,\"pid\":%d,\"tid\":%d}"
+                ),
+                this.name, this.start * 1000L, this.msec * 1000L, pid, tid
+            );
+        }
+    }
+
+}
@@ -0,0 +1,176 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2012-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.mysql.maven.plugin;
+
+import com.jcabi.log.Logger;
+import java.io.File;
+import java.io.IOException;
+import java.util.Collection;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+
+/**
+ * Compares statement digests of a running MySQL with the baseline.
+ *
+ * <p>Run it after integration tests and before {@code stop}. It reads
+ * {@code performance_schema.events_statements_summary_by_digest} and
+ * compares rows examined, full scans, temporary tables and latency per
+ * call of every digest with the {@code baseline} file, see
+ * {@link Digests}. Regressions fail the build, or are only logged in
+ * {@code warn} mode. In {@code rewrite} mode, or when there is no
+ * baseline yet, the baseline is saved instead, to be committed. When
+ * many {@code instances} are started, every one of them has its own
+ * baseline, with the port in front of the name of the file.
+ *
+ * @since 1.0
+ */
+@ToString
+@EqualsAndHashCode(callSuper = false)
+@Mojo(
+    threadSafe = true, name = "verify-digests",
+    defaultPhase = LifecyclePhase.POST_INTEGRATION_TEST
+)
+public final class VerifyDigestsMojo extends AbstractMysqlMojo {
+
+    /**
+     * Baseline file with digests.
+     */
+    @Parameter(
+        defaultValue = "${basedir}/src/test/resources/mysql-digests.txt",
+        required = false
+    )
+    private transient File baseline;
+
+    /**
+     * What to do: {@code fail} on regressions, only {@code warn} about
+     * them, or {@code rewrite} the baseline.
+     */
+    @Parameter(
+        defaultValue = "fail",
+        property = "jcabi.mysql.digests",
+        required = false
+    )
+    private transient String mode;
+
+    /**
+     * How many times rows examined, full scans and temporary tables per
+     * call may grow.
+     */
+    @Parameter(
+        defaultValue = "2.0",
+        property = "jcabi.mysql.digests.tolerance",
+        required = false
+    )
+    private transient double tolerance;
+
+    /**
+     * How many times latency per call may grow, or zero to not compare
+     * latency, which is noisy on shared machines.
+     */
+    @Parameter(
+        defaultValue = "5.0",
+        property = "jcabi.mysql.digests.slowdown",
+        required = false
+    )
+    private transient double slowdown;
+
+    @Override
+    public void run(final Instances instances) throws MojoFailureException {
+        if (!"fail".equals(this.mode) && !"warn".equals(this.mode)
+            && !"rewrite".equals(this.mode)) {
+            throw new MojoFailureException(
+                String.format(
+                    "Unknown mode '%s', use 'fail', 'warn' or 'rewrite'",
+                    this.mode
+                )
+            );
+        }
+        for (final Config config : this.configs()) {
+            try {
+                this.verify(
+                    Digests.fetch(instances.client(config.port())),
+                    this.baselineFile(config)
+                );
+            } catch (final IOException ex) {
+                throw new MojoFailureException(
+                    String.format(
+                        "failed to verify digests of MySQL at %d port",
+                        config.port()
+                    ),
+                    ex
+                );
+            }
+        }
+    }
+
+    /**
+     * Compare digests with the baseline, or save them as the baseline.
+     * @param digests Digests of the running instance
+     * @param file The baseline file
+     * @throws IOException If fails
+     * @throws MojoFailureException If there are regressions
+     */
+    private void verify(final Digests digests, final File file)
+        throws IOException, MojoFailureException {
+        if ("rewrite".equals(this.mode) || !file.exists()) {
+            digests.save(file);
+            Logger.info(
+                this, "Baseline of %d digest(s) saved into %s",
+                digests.size(), file
+            );
+        } else {
+            final Digests before = Digests.load(file);
+            for (final String text : digests.unknown(before)) {
+                Logger.warn(this, "Digest is not in the baseline: %s", text);
+            }
+            final Collection<String> regressions = digests.regressions(
+                before, this.tolerance, this.slowdown
+            );
+            for (final String regression : regressions) {
+                Logger.warn(this, "Regression: %s", regression);
+            }
+            if (!regressions.isEmpty() && "fail".equals(this.mode)) {
+                throw new MojoFailureException(
+                    String.format(
+                        String.join(
+                            " ",
+                            "%d statement digest(s) regressed against %s,",
+                            "see the log, or rewrite the baseline",
+                            "with -Djcabi.mysql.digests=rewrite"
+                        ),
+                        regressions.size(), file
+                    )
+                );
+            }
+            Logger.info(
+                this, "%d digest(s) verified against %s, %d regression(s)",
+                digests.size(), file, regressions.size()
+            );
+        }
+    }
+
+    /**
+     * Baseline file of the instance.
+     * @param config Instance configuration
+     * @return File
+     */
+    private File baselineFile(final Config config) {
+        final File file;
+        if (this.multiple()) {
+            file = new File(
+                this.baseline.getParentFile(),
+                String.format("%d-%s", config.port(), this.baseline.getName())
+            );
+        } else {
+            file = this.baseline;
+        }
+        return file;
+    }
+
+}
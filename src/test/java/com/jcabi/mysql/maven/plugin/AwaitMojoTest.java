@@ -0,0 +1,27 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2012-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.mysql.maven.plugin;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test case for {@link AwaitMojo} (more detailed test is in maven invoker).
+ *
+ * @since 1.0
+ */
+final class AwaitMojoTest {
+
+    /**
+     * AwaitMojo can skip execution when flag is set.
+     * @throws Exception If something is wrong
+     */
+    @Test
+    void skipsExecutionWhenRequired() throws Exception {
+        final AwaitMojo mojo = new AwaitMojo();
+        mojo.setSkip(true);
+        mojo.execute();
+    }
+
+}
@@ -0,0 +1,108 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2012-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.mysql.maven.plugin;
+
+import java.util.Collections;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test case for {@link Bootstrap}.
+ * @since 1.0
+ */
+final class BootstrapTest {
+
+    /**
+     * Bootstrap can create a custom user with escaped password.
+     */
+    @Test
+    void createsCustomUser() {
+        MatcherAssert.assertThat(
+            new Bootstrap(
+                new Config(
+                    3306, "jeff", "it's", "shop", Collections.emptyList()
+                )
+            ).sql(),
+            Matchers.allOf(
+                Matchers.containsString("CREATE DATABASE IF NOT EXISTS `shop`;"),
+                Matchers.containsString(
+                    "CREATE USER IF NOT EXISTS 'jeff'@'127.0.0.1' IDENTIFIED BY 'it''s';"
+                ),
+                Matchers.containsString("GRANT ALL ON `shop`.* TO 'jeff'@'127.0.0.1';")
+            )
+        );
+    }
+
+    /**
+     * Bootstrap can create a user connecting through the socket, when
+     * networking is off.
+     */
+    @Test
+    void createsLocalUserWithoutNetworking() {
+        MatcherAssert.assertThat(
+            new Bootstrap(
+                new Config(
+                    3306, "jeff", "secret", "shop", Collections.emptyList()
+                ).withSocketOnly(true)
+            ).sql(),
+            Matchers.containsString("GRANT ALL ON `shop`.* TO 'jeff'@'localhost';")
+        );
+    }
+
+    /**
+     * Bootstrap can create a user on a distribution older than 5.7.6,
+     * leaving the root password as it is.
+     */
+    @Test
+    void createsUserOnLegacyServer() {
+        MatcherAssert.assertThat(
+            new Bootstrap(
+                new Config(
+                    3306, "jeff", "it's", "shop", Collections.emptyList()
+                )
+            ).legacy(),
+            Matchers.allOf(
+                Matchers.containsString("CREATE DATABASE IF NOT EXISTS `shop`;"),
+                Matchers.containsString(
+                    "GRANT ALL ON `shop`.* TO 'jeff'@'127.0.0.1' IDENTIFIED BY 'it''s';"
+                ),
+                Matchers.not(Matchers.containsString("ALTER USER"))
+            )
+        );
+    }
+
+    /**
+     * Bootstrap can quote a database name with backticks inside.
+     */
+    @Test
+    void quotesDatabaseName() {
+        MatcherAssert.assertThat(
+            new Bootstrap(
+                new Config(
+                    3306, "jeff", "secret", "a`b", Collections.emptyList()
+                )
+            ).sql(),
+            Matchers.allOf(
+                Matchers.containsString("CREATE DATABASE IF NOT EXISTS `a``b`;"),
+                Matchers.containsString("GRANT ALL ON `a``b`.* TO 'jeff'@'127.0.0.1';")
+            )
+        );
+    }
+
+    /**
+     * Bootstrap can skip user creation for root.
+     */
+    @Test
+    void skipsRootCreation() {
+        MatcherAssert.assertThat(
+            new Bootstrap(
+                new Config(3306, "root", "root", "root", Collections.emptyList())
+            ).sql(),
+            Matchers.not(Matchers.containsString("CREATE USER"))
+        );
+    }
+
+}
@@ -0,0 +1,50 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2012-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.mysql.maven.plugin;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import org.apache.commons.io.FileUtils;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test case for {@link Checkpoint}.
+ * @since 1.0
+ */
+final class CheckpointTest {
+
+    /**
+     * Checkpoint can restore only changed files.
+     * @param temp Temporary directory
+     * @throws Exception If something is wrong
+     */
+    @Test
+    void restoresChangedFilesOnly(@TempDir final Path temp) throws Exception {
+        final File data = temp.resolve("data").toFile();
+        final File users = new File(data, "db/users.ibd");
+        final File orders = new File(data, "db/orders.ibd");
+        FileUtils.writeStringToFile(users, "alice", StandardCharsets.UTF_8);
+        FileUtils.writeStringToFile(orders, "none", StandardCharsets.UTF_8);
+        final Checkpoint checkpoint = new Checkpoint(
+            temp.resolve("checkpoint").toFile()
+        );
+        checkpoint.save(data);
+        FileUtils.writeStringToFile(users, "alice, bob", StandardCharsets.UTF_8);
+        final File extra = new File(data, "extra/new.ibd");
+        FileUtils.writeStringToFile(extra, "x", StandardCharsets.UTF_8);
+        MatcherAssert.assertThat(checkpoint.restore(data), Matchers.equalTo(1));
+        MatcherAssert.assertThat(
+            FileUtils.readFileToString(users, StandardCharsets.UTF_8),
+            Matchers.equalTo("alice")
+        );
+        MatcherAssert.assertThat(extra.getParentFile().exists(), Matchers.is(false));
+        MatcherAssert.assertThat(checkpoint.restore(data), Matchers.equalTo(0));
+    }
+
+}
@@ -0,0 +1,87 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2012-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.mysql.maven.plugin;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test case for {@link Clone}.
+ * @since 1.0
+ */
+final class CloneTest {
+
+    /**
+     * Clone.Parallel can copy a directory with empty sub-directories.
+     * @param temp Temporary directory
+     * @throws Exception If something is wrong
+     */
+    @Test
+    void copiesInParallel(@TempDir final Path temp) throws Exception {
+        final Path source = CloneTest.source(temp);
+        final Path target = temp.resolve("target");
+        MatcherAssert.assertThat(
+            new Clone.Parallel(2).copy(source, target),
+            Matchers.is(true)
+        );
+        MatcherAssert.assertThat(
+            new String(
+                Files.readAllBytes(target.resolve("mysql/user.ibd")),
+                StandardCharsets.UTF_8
+            ),
+            Matchers.equalTo("users")
+        );
+        MatcherAssert.assertThat(
+            Files.isDirectory(target.resolve("performance_schema")),
+            Matchers.is(true)
+        );
+    }
+
+    /**
+     * Clone.Fastest can fall back to the next strategy.
+     * @param temp Temporary directory
+     * @throws Exception If something is wrong
+     */
+    @Test
+    void fallsBackToNextStrategy(@TempDir final Path temp) throws Exception {
+        final Path source = CloneTest.source(temp);
+        final Path target = temp.resolve("fallback");
+        MatcherAssert.assertThat(
+            new Clone.Fastest(
+                (src, dest) -> false,
+                new Clone.Parallel()
+            ).copy(source, target),
+            Matchers.is(true)
+        );
+        MatcherAssert.assertThat(
+            Files.exists(target.resolve("ibdata1")),
+            Matchers.is(true)
+        );
+    }
+
+    /**
+     * Create source data directory.
+     * @param temp Where to create it
+     * @return Directory
+     * @throws Exception If fails
+     */
+    private static Path source(final Path temp) throws Exception {
+        final Path source = temp.resolve("source");
+        Files.createDirectories(source.resolve("mysql"));
+        Files.createDirectories(source.resolve("performance_schema"));
+        Files.write(source.resolve("ibdata1"), new byte[] {0, 0, 0, 0});
+        Files.write(
+            source.resolve("mysql/user.ibd"),
+            "users".getBytes(StandardCharsets.UTF_8)
+        );
+        return source;
+    }
+
+}
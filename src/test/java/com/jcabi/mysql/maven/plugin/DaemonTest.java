@@ -0,0 +1,116 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2012-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.mysql.maven.plugin;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import org.apache.commons.io.FileUtils;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test case for {@link Daemon}.
+ * @since 1.0
+ */
+final class DaemonTest {
+
+    /**
+     * Daemon can reject unknown requests.
+     * @throws Exception If something is wrong
+     */
+    @Test
+    void rejectsUnknownRequest() throws Exception {
+        MatcherAssert.assertThat(
+            DaemonTest.daemon().respond("HELLO"),
+            Matchers.startsWith("ERROR")
+        );
+    }
+
+    /**
+     * Daemon can refuse to release an instance that is not leased.
+     */
+    @Test
+    void refusesForeignRelease() {
+        Assertions.assertThrows(
+            IllegalArgumentException.class,
+            () -> DaemonTest.daemon().respond("RELEASE secret 3306")
+        );
+    }
+
+    /**
+     * Daemon can reject requests without the token.
+     * @throws Exception If something is wrong
+     */
+    @Test
+    void rejectsWrongToken() throws Exception {
+        MatcherAssert.assertThat(
+            DaemonTest.daemon().respond("LEASE guess db user password"),
+            Matchers.startsWith("ERROR")
+        );
+    }
+
+    /**
+     * Daemon can stop serving and remove its control file, which only
+     * its owner can read.
+     * @param temp Temporary directory
+     * @throws Exception If something is wrong
+     */
+    @Test
+    void stopsServing(@TempDir final Path temp) throws Exception {
+        final Daemon daemon = new Daemon(
+            new Instances(), new File("dist"), temp.toFile(),
+            new Config(0, "root", "root", "root", Collections.emptyList()),
+            0, 1L, "secret"
+        );
+        final File control = temp.resolve("daemon.txt").toFile();
+        final Thread thread = new Thread(
+            () -> {
+                try {
+                    daemon.serve(control);
+                } catch (final IOException ex) {
+                    throw new IllegalStateException(ex);
+                }
+            }
+        );
+        thread.start();
+        while (!control.exists() || control.length() == 0L) {
+            TimeUnit.MILLISECONDS.sleep(10L);
+        }
+        MatcherAssert.assertThat(
+            Files.getPosixFilePermissions(control.toPath()),
+            Matchers.equalTo(PosixFilePermissions.fromString("rw-------"))
+        );
+        MatcherAssert.assertThat(
+            FileUtils.readFileToString(control, StandardCharsets.UTF_8),
+            Matchers.endsWith(" secret")
+        );
+        daemon.stop();
+        thread.join(TimeUnit.SECONDS.toMillis(5L));
+        MatcherAssert.assertThat(thread.isAlive(), Matchers.is(false));
+        MatcherAssert.assertThat(control.exists(), Matchers.is(false));
+    }
+
+    /**
+     * Make a daemon that is not serving yet.
+     * @return Daemon
+     */
+    private static Daemon daemon() {
+        return new Daemon(
+            new Instances(), new File("dist"), new File("data"),
+            new Config(0, "root", "root", "root", Collections.emptyList()),
+            1, 1L, "secret"
+        );
+    }
+
+}
@@ -0,0 +1,168 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2012-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.mysql.maven.plugin;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.commons.io.FileUtils;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test case for {@link DataCache}.
+ * @since 1.0
+ */
+final class DataCacheTest {
+
+    /**
+     * DataCache can initialize the golden copy only once.
+     * @param temp Temporary directory
+     * @throws Exception If something is wrong
+     */
+    @Test
+    void initializesOnlyOnce(@TempDir final Path temp) throws Exception {
+        final File dist = DataCacheTest.dist(temp, "8.0.33");
+        final AtomicInteger count = new AtomicInteger();
+        final DataCache cache = new DataCache(temp.resolve("cache").toFile());
+        for (int idx = 0; idx < 2; ++idx) {
+            final File target = temp.resolve(String.format("t%d", idx)).toFile();
+            cache.populate(
+                dist, Collections.singletonList("--initialize-insecure"),
+                dir -> DataCacheTest.init(dir, count),
+                target
+            );
+            MatcherAssert.assertThat(
+                FileUtils.readFileToString(
+                    new File(target, "ibdata1"), StandardCharsets.UTF_8
+                ),
+                Matchers.equalTo("data")
+            );
+            MatcherAssert.assertThat(
+                new File(target, "auto.cnf").exists(),
+                Matchers.is(false)
+            );
+        }
+        MatcherAssert.assertThat(count.get(), Matchers.equalTo(1));
+    }
+
+    /**
+     * DataCache can save the fingerprint of the distribution for the
+     * next builds.
+     * @param temp Temporary directory
+     * @throws Exception If something is wrong
+     */
+    @Test
+    void savesFingerprint(@TempDir final Path temp) throws Exception {
+        final File root = temp.resolve("cache").toFile();
+        new DataCache(root).populate(
+            DataCacheTest.dist(temp, "8.0.33"), Collections.emptyList(),
+            dir -> DataCacheTest.init(dir, new AtomicInteger()),
+            temp.resolve("target").toFile()
+        );
+        final File[] prints = new File(root, "prints").listFiles();
+        MatcherAssert.assertThat(prints, Matchers.arrayWithSize(1));
+        MatcherAssert.assertThat(
+            FileUtils.readFileToString(prints[0], StandardCharsets.UTF_8),
+            Matchers.matchesPattern("[0-9a-f]{64}")
+        );
+    }
+
+    /**
+     * DataCache can invalidate the golden copy when distribution changes.
+     * @param temp Temporary directory
+     * @throws Exception If something is wrong
+     */
+    @Test
+    void invalidatesWhenDistChanges(@TempDir final Path temp)
+        throws Exception {
+        final AtomicInteger count = new AtomicInteger();
+        final DataCache cache = new DataCache(temp.resolve("cache").toFile());
+        cache.populate(
+            DataCacheTest.dist(temp.resolve("a"), "8.0.33"),
+            Collections.emptyList(),
+            dir -> DataCacheTest.init(dir, count),
+            temp.resolve("first").toFile()
+        );
+        cache.populate(
+            DataCacheTest.dist(temp.resolve("b"), "8.0.34"),
+            Collections.emptyList(),
+            dir -> DataCacheTest.init(dir, count),
+            temp.resolve("second").toFile()
+        );
+        MatcherAssert.assertThat(count.get(), Matchers.equalTo(2));
+    }
+
+    /**
+     * DataCache can invalidate the golden copy when a binary of the
+     * distribution is rebuilt with the same size.
+     * @param temp Temporary directory
+     * @throws Exception If something is wrong
+     */
+    @Test
+    void invalidatesWhenBinaryChangesKeepingSize(@TempDir final Path temp)
+        throws Exception {
+        final AtomicInteger count = new AtomicInteger();
+        final DataCache cache = new DataCache(temp.resolve("cache").toFile());
+        final File first = DataCacheTest.dist(temp.resolve("a"), "8.0.33");
+        final File second = DataCacheTest.dist(temp.resolve("b"), "8.0.33");
+        FileUtils.writeStringToFile(
+            new File(second, "bin/mysqld"), "#!/usr/sh", StandardCharsets.UTF_8
+        );
+        cache.populate(
+            first, Collections.emptyList(),
+            dir -> DataCacheTest.init(dir, count),
+            temp.resolve("first").toFile()
+        );
+        cache.populate(
+            second, Collections.emptyList(),
+            dir -> DataCacheTest.init(dir, count),
+            temp.resolve("second").toFile()
+        );
+        MatcherAssert.assertThat(count.get(), Matchers.equalTo(2));
+    }
+
+    /**
+     * Create fake distribution.
+     * @param base Where to create it
+     * @param version Version to write into docs
+     * @return Directory of distribution
+     * @throws Exception If fails
+     */
+    private static File dist(final Path base, final String version)
+        throws Exception {
+        final File dist = base.resolve("dist").toFile();
+        FileUtils.writeStringToFile(
+            new File(dist, "bin/mysqld"), "#!/bin/sh", StandardCharsets.UTF_8
+        );
+        FileUtils.writeStringToFile(
+            new File(dist, "docs/INFO_SRC"), version, StandardCharsets.UTF_8
+        );
+        return dist;
+    }
+
+    /**
+     * Fake initialization of data directory.
+     * @param dir Directory to initialize
+     * @param count Counter of initializations
+     * @throws IOException If fails
+     */
+    private static void init(final File dir, final AtomicInteger count)
+        throws IOException {
+        count.incrementAndGet();
+        FileUtils.writeStringToFile(
+            new File(dir, "ibdata1"), "data", StandardCharsets.UTF_8
+        );
+        FileUtils.writeStringToFile(
+            new File(dir, "auto.cnf"), "uuid", StandardCharsets.UTF_8
+        );
+    }
+
+}
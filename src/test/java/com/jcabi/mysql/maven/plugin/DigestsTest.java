@@ -0,0 +1,69 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2012-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.mysql.maven.plugin;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test case for {@link Digests}.
+ * @since 1.0
+ */
+final class DigestsTest {
+
+    /**
+     * Digests can find regressions against the saved baseline.
+     * @param temp Temporary directory
+     * @throws Exception If something is wrong
+     */
+    @Test
+    void findsRegressionsAgainstBaseline(@TempDir final Path temp)
+        throws Exception {
+        final Map<String, Digests.Stats> before = new HashMap<>(0);
+        before.put("aa", DigestsTest.stats(10.0d, 0.0d, 0.0d, "SELECT ?"));
+        before.put("bb", DigestsTest.stats(100.0d, 1.0d, 0.0d, "DELETE ?"));
+        final File file = temp.resolve("digests.txt").toFile();
+        new Digests(before).save(file);
+        final Digests baseline = Digests.load(file);
+        MatcherAssert.assertThat(baseline, Matchers.equalTo(new Digests(before)));
+        final Map<String, Digests.Stats> after = new HashMap<>(0);
+        after.put("aa", DigestsTest.stats(1000.0d, 1.0d, 0.0d, "SELECT ?"));
+        after.put("bb", DigestsTest.stats(150.0d, 1.0d, 0.0d, "DELETE ?"));
+        after.put("cc", DigestsTest.stats(1.0d, 0.0d, 1.0d, "UPDATE ?"));
+        final Digests current = new Digests(after);
+        MatcherAssert.assertThat(
+            current.regressions(baseline, 2.0d, 0.0d),
+            Matchers.contains(
+                Matchers.startsWith("1000.000 rows examined per call"),
+                Matchers.startsWith("1.000 full scans per call")
+            )
+        );
+        MatcherAssert.assertThat(
+            current.unknown(baseline), Matchers.contains("UPDATE ?")
+        );
+    }
+
+    /**
+     * Make statistics.
+     * @param rows Rows examined per call
+     * @param scans Full scans per call
+     * @param tmp Temporary tables per call
+     * @param text Text of the digest
+     * @return Statistics
+     */
+    private static Digests.Stats stats(final double rows, final double scans,
+        final double tmp, final String text) {
+        return new Digests.Stats(
+            5L, new double[] {rows, scans, tmp, 0.5d}, text
+        );
+    }
+
+}
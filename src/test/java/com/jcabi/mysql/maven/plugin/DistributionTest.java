@@ -0,0 +1,74 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2012-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.mysql.maven.plugin;
+
+import java.io.File;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test case for {@link Distribution}.
+ * @since 1.0
+ */
+final class DistributionTest {
+
+    /**
+     * Distribution can unpack a trimmed archive once.
+     * @param temp Temporary directory
+     * @throws Exception If something is wrong
+     */
+    @Test
+    void unpacksTrimmedArchiveOnce(@TempDir final Path temp) throws Exception {
+        final File zip = temp.resolve("dist.zip").toFile();
+        try (ZipOutputStream out = new ZipOutputStream(
+            Files.newOutputStream(zip.toPath())
+        )) {
+            for (final String name : new String[] {
+                "bin/mysqld", "bin/mysqld-debug", "share/english/errmsg.sys",
+                "lib/libmysqlclient.a", "mysql-test/mtr",
+            }) {
+                out.putNextEntry(new ZipEntry(name));
+                out.write(name.getBytes(StandardCharsets.UTF_8));
+                out.closeEntry();
+            }
+        }
+        final Distribution dist = new Distribution(temp.resolve("store").toFile());
+        final File dir = dist.unpack(zip, true);
+        MatcherAssert.assertThat(
+            new File(dir, "bin/mysqld").canExecute(), Matchers.is(true)
+        );
+        MatcherAssert.assertThat(
+            new File(dir, "share/english/errmsg.sys").exists(), Matchers.is(true)
+        );
+        MatcherAssert.assertThat(
+            new File(dir, "bin/mysqld-debug").exists(), Matchers.is(false)
+        );
+        MatcherAssert.assertThat(
+            new File(dir, "lib/libmysqlclient.a").exists(), Matchers.is(false)
+        );
+        MatcherAssert.assertThat(
+            new File(dir, "mysql-test").exists(), Matchers.is(false)
+        );
+        try (OutputStream out = Files.newOutputStream(
+            new File(dir, "marker").toPath()
+        )) {
+            out.write(1);
+        }
+        MatcherAssert.assertThat(dist.unpack(zip, true), Matchers.equalTo(dir));
+        MatcherAssert.assertThat(new File(dir, "marker").exists(), Matchers.is(true));
+        MatcherAssert.assertThat(
+            dist.unpack(zip, false), Matchers.not(Matchers.equalTo(dir))
+        );
+    }
+
+}
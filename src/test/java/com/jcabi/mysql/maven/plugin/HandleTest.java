@@ -0,0 +1,149 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2012-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.mysql.maven.plugin;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mockito;
+
+/**
+ * Test case for {@link Handle}.
+ * @since 1.0
+ */
+final class HandleTest {
+
+    /**
+     * Handle can count starts that share it, until the last stop.
+     * @param temp Temporary directory
+     */
+    @Test
+    void countsSharedStarts(@TempDir final Path temp) {
+        final Handle handle = HandleTest.handle(temp);
+        MatcherAssert.assertThat(handle.acquire(), Matchers.is(true));
+        MatcherAssert.assertThat(handle.release(), Matchers.is(false));
+        MatcherAssert.assertThat(handle.release(), Matchers.is(true));
+        MatcherAssert.assertThat(handle.alive(), Matchers.is(false));
+        MatcherAssert.assertThat(handle.acquire(), Matchers.is(false));
+    }
+
+    /**
+     * Handle can match starts with another database only.
+     * @param temp Temporary directory
+     */
+    @Test
+    void matchesStartsWithAnotherDatabase(@TempDir final Path temp) {
+        final Handle handle = HandleTest.handle(temp);
+        final File dir = temp.toFile();
+        final File sock = new File(dir, "mysql.sock");
+        MatcherAssert.assertThat(
+            handle.matches(
+                new Config(
+                    Instances.AUTO, "jeff", "secret", "other",
+                    Collections.emptyList()
+                ),
+                dir, dir, sock
+            ),
+            Matchers.is(true)
+        );
+        MatcherAssert.assertThat(
+            handle.matches(
+                new Config(
+                    3307, "root", "root", "root", Collections.emptyList()
+                ),
+                dir, dir, sock
+            ),
+            Matchers.is(false)
+        );
+        MatcherAssert.assertThat(
+            handle.matches(
+                new Config(
+                    Instances.AUTO, "root", "root", "root",
+                    Collections.singletonList("skip-log-bin")
+                ),
+                dir, dir, sock
+            ),
+            Matchers.is(false)
+        );
+    }
+
+    /**
+     * Handle can fail the starts waiting for it, when it fails to boot.
+     * @param temp Temporary directory
+     */
+    @Test
+    void failsWaitingStartsWhenBootFails(@TempDir final Path temp) {
+        final Handle handle = HandleTest.handle(temp);
+        handle.fail(new IOException("no way"));
+        Assertions.assertThrows(IOException.class, handle::await);
+        MatcherAssert.assertThat(handle.acquire(), Matchers.is(false));
+    }
+
+    /**
+     * Handle can keep the starts waiting, while its server is taken away
+     * for a restart.
+     * @param temp Temporary directory
+     * @throws Exception If something is wrong
+     */
+    @Test
+    void waitsForTakenServer(@TempDir final Path temp) throws Exception {
+        final Handle handle = HandleTest.handle(temp);
+        final File dir = temp.toFile();
+        final Server server = new Server(
+            Mockito.mock(Process.class), handle.config(), dir,
+            handle.socket(), dir, dir, false
+        );
+        handle.boot(server);
+        handle.take();
+        final Thread restart = new Thread(
+            () -> {
+                try {
+                    TimeUnit.MILLISECONDS.sleep(200L);
+                } catch (final InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+                handle.boot(server);
+            }
+        );
+        restart.start();
+        MatcherAssert.assertThat(handle.await(), Matchers.is(server));
+        restart.join();
+    }
+
+    /**
+     * Handle can release the starts waiting for it, when it's stopped
+     * while its server is taken away.
+     * @param temp Temporary directory
+     * @throws Exception If something is wrong
+     */
+    @Test
+    void releasesWaitingStartsWhenClosed(@TempDir final Path temp)
+        throws Exception {
+        final Handle handle = HandleTest.handle(temp);
+        handle.close();
+        MatcherAssert.assertThat(handle.await(), Matchers.nullValue());
+    }
+
+    /**
+     * Make a handle of an instance at 3306 port.
+     * @param temp Temporary directory
+     * @return Handle
+     */
+    private static Handle handle(final Path temp) {
+        final File dir = temp.toFile();
+        return new Handle(
+            new Config(3306, "root", "root", "root", Collections.emptyList()),
+            dir, dir, new File(dir, "mysql.sock"), true
+        );
+    }
+
+}
@@ -0,0 +1,74 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2012-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.mysql.maven.plugin;
+
+import java.lang.reflect.Field;
+import java.util.Collections;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test case for {@link Instance}.
+ * @since 1.0
+ */
+final class InstanceTest {
+
+    /**
+     * Instance can fall back to plugin-level configuration.
+     * @throws Exception If something is wrong
+     */
+    @Test
+    void fallsBackToPluginLevel() throws Exception {
+        final Instance instance = new Instance();
+        InstanceTest.set(instance, "port", 3307);
+        InstanceTest.set(instance, "dbname", "orders");
+        InstanceTest.set(
+            instance, "options", Collections.singletonList("max_connections=10")
+        );
+        final Config config = instance.config(
+            new Config(
+                3306, "jeff", "secret", "root",
+                Collections.singletonList("sql-mode=ALLOW_INVALID_DATES")
+            )
+        );
+        MatcherAssert.assertThat(config.port(), Matchers.equalTo(3307));
+        MatcherAssert.assertThat(config.dbname(), Matchers.equalTo("orders"));
+        MatcherAssert.assertThat(config.user(), Matchers.equalTo("jeff"));
+        MatcherAssert.assertThat(
+            config.options(),
+            Matchers.contains("sql-mode=ALLOW_INVALID_DATES", "max_connections=10")
+        );
+    }
+
+    /**
+     * Instance can reject definition without port.
+     */
+    @Test
+    void rejectsMissingPort() {
+        Assertions.assertThrows(
+            IllegalArgumentException.class,
+            () -> new Instance().config(
+                new Config(3306, "root", "root", "root", Collections.emptyList())
+            )
+        );
+    }
+
+    /**
+     * Set private field, as Maven does.
+     * @param instance The instance
+     * @param name Name of the field
+     * @param value Value to set
+     * @throws Exception If fails
+     */
+    private static void set(final Instance instance, final String name,
+        final Object value) throws Exception {
+        final Field field = Instance.class.getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(instance, value);
+    }
+
+}
@@ -5,14 +5,20 @@
 package com.jcabi.mysql.maven.plugin;
 
 import com.jcabi.jdbc.JdbcSession;
+import com.jcabi.jdbc.SingleOutcome;
 import com.jcabi.jdbc.UrlSource;
 import java.io.File;
 import java.net.ServerSocket;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 import javax.sql.DataSource;
+import org.apache.commons.io.FileUtils;
 import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
 
@@ -102,6 +108,190 @@ final class InstancesTest {
         }
     }
 
+    /**
+     * Instances can keep data of an ephemeral instance in RAM and delete
+     * it on stop.
+     * @throws Exception If something is wrong
+     */
+    @Test
+    void keepsEphemeralDataInRam() throws Exception {
+        final int port = this.reserve();
+        final Instances instances = new Instances();
+        final File ram = Files.createTempDirectory("").toFile();
+        instances.start(
+            new Config(
+                port,
+                InstancesTest.USER,
+                InstancesTest.PASSWORD,
+                InstancesTest.DBNAME,
+                Collections.emptyList()
+            ).withEphemeral(ram),
+            new File(InstancesTest.DIST),
+            Files.createTempDirectory("").toFile(),
+            true,
+            null
+        );
+        try {
+            new JdbcSession(
+                new UrlSource(
+                    String.format(
+                        InstancesTest.CONNECTION_STRING,
+                        port,
+                        InstancesTest.DBNAME,
+                        InstancesTest.USER,
+                        InstancesTest.PASSWORD
+                    )
+                )
+            ).sql("SELECT 1").execute();
+            MatcherAssert.assertThat(ram.list(), Matchers.arrayWithSize(1));
+        } finally {
+            instances.stop(port);
+        }
+        MatcherAssert.assertThat(ram.list(), Matchers.emptyArray());
+    }
+
+    /**
+     * Instances can clone a database into siblings.
+     * @throws Exception If something is wrong
+     */
+    @Test
+    void clonesDatabase() throws Exception {
+        final int port = this.reserve();
+        final Instances instances = new Instances();
+        instances.start(
+            new Config(
+                port,
+                InstancesTest.USER,
+                InstancesTest.PASSWORD,
+                InstancesTest.DBNAME,
+                Collections.emptyList()
+            ),
+            new File(InstancesTest.DIST),
+            Files.createTempDirectory("").toFile(),
+            true,
+            null
+        );
+        try {
+            new JdbcSession(
+                new UrlSource(
+                    String.format(
+                        InstancesTest.CONNECTION_STRING,
+                        port,
+                        InstancesTest.DBNAME,
+                        InstancesTest.USER,
+                        InstancesTest.PASSWORD
+                    )
+                )
+            )
+                .sql("CREATE TABLE foo (id INT PRIMARY KEY)")
+                .execute()
+                .sql("INSERT INTO foo VALUES (42)")
+                .execute();
+            instances.clone(port, Collections.singletonList("copy"));
+            MatcherAssert.assertThat(
+                new JdbcSession(
+                    new UrlSource(
+                        String.format(
+                            InstancesTest.CONNECTION_STRING,
+                            port,
+                            "copy",
+                            InstancesTest.USER,
+                            InstancesTest.PASSWORD
+                        )
+                    )
+                ).sql("SELECT id FROM foo").select(new SingleOutcome<>(Long.class)),
+                Matchers.equalTo(42L)
+            );
+        } finally {
+            instances.stop(port);
+        }
+    }
+
+    /**
+     * Instances can clone tables with names, which MySQL encodes in
+     * names of their files.
+     * @throws Exception If something is wrong
+     */
+    @Test
+    void clonesTablesWithSpecialNames() throws Exception {
+        final int port = this.reserve();
+        final Instances instances = new Instances();
+        instances.start(
+            new Config(
+                port,
+                InstancesTest.USER,
+                InstancesTest.PASSWORD,
+                "shop-1",
+                Collections.emptyList()
+            ),
+            new File(InstancesTest.DIST),
+            Files.createTempDirectory("").toFile(),
+            true,
+            null
+        );
+        try {
+            final Client client = instances.client(port);
+            client.execute(
+                String.join(
+                    "\n",
+                    "CREATE TABLE `shop-1`.`order$items` (id INT PRIMARY KEY);",
+                    "INSERT INTO `shop-1`.`order$items` VALUES (42);"
+                )
+            );
+            instances.clone(port, Collections.singletonList("copy-1"));
+            MatcherAssert.assertThat(
+                client.execute("SELECT id FROM `copy-1`.`order$items`;"),
+                Matchers.containsString("42")
+            );
+        } finally {
+            instances.stop(port);
+        }
+    }
+
+    /**
+     * Instances can clone a database into siblings, granting them to
+     * the user that connects through the socket, when networking is off.
+     * @throws Exception If something is wrong
+     */
+    @Test
+    void clonesDatabaseWithoutNetworking() throws Exception {
+        final int port = this.reserve();
+        final Instances instances = new Instances();
+        instances.start(
+            new Config(
+                port,
+                InstancesTest.USER,
+                InstancesTest.PASSWORD,
+                InstancesTest.DBNAME,
+                Collections.emptyList()
+            ).withSocketOnly(true),
+            new File(InstancesTest.DIST),
+            Files.createTempDirectory("").toFile(),
+            true,
+            null
+        );
+        try {
+            final Client client = instances.client(port);
+            client.execute(
+                String.format(
+                    "CREATE TABLE `%s`.foo (id INT PRIMARY KEY);",
+                    InstancesTest.DBNAME
+                )
+            );
+            instances.clone(port, Collections.singletonList("copy"));
+            MatcherAssert.assertThat(
+                client.execute(
+                    String.format(
+                        "SHOW GRANTS FOR '%s'@'localhost';", InstancesTest.USER
+                    )
+                ),
+                Matchers.containsString("`copy`")
+            );
+        } finally {
+            instances.stop(port);
+        }
+    }
+
     /**
      * Instances can use option.
      * Test creates and inserts incorrect date in it
@@ -299,6 +489,139 @@ final class InstancesTest {
         }
     }
 
+    /**
+     * Instances can start many instances in parallel.
+     * @throws Exception If something is wrong
+     */
+    @Test
+    void startsManyInParallel() throws Exception {
+        final Instances instances = new Instances();
+        final List<Config> configs = new ArrayList<>(2);
+        for (int idx = 0; idx < 2; ++idx) {
+            configs.add(
+                new Config(
+                    this.reserve(),
+                    InstancesTest.USER,
+                    InstancesTest.PASSWORD,
+                    InstancesTest.DBNAME,
+                    Collections.emptyList()
+                )
+            );
+        }
+        instances.start(
+            configs,
+            new File(InstancesTest.DIST),
+            Files.createTempDirectory("").toFile(),
+            true
+        );
+        try {
+            for (final Config config : configs) {
+                new JdbcSession(
+                    new UrlSource(
+                        String.format(
+                            InstancesTest.CONNECTION_STRING,
+                            config.port(),
+                            InstancesTest.DBNAME,
+                            InstancesTest.USER,
+                            InstancesTest.PASSWORD
+                        )
+                    )
+                ).sql("SELECT 1").execute();
+            }
+        } finally {
+            for (final Config config : configs) {
+                instances.stop(config.port());
+            }
+        }
+    }
+
+    /**
+     * Instances can share a running instance and stop it on the last stop.
+     * @throws Exception If something is wrong
+     */
+    @Test
+    void sharesInstanceUntilLastStop() throws Exception {
+        final int port = this.reserve();
+        final Instances instances = new Instances();
+        final File dist = new File(InstancesTest.DIST);
+        final File target = Files.createTempDirectory("").toFile();
+        final Config config = new Config(
+            port,
+            InstancesTest.USER,
+            InstancesTest.PASSWORD,
+            InstancesTest.DBNAME,
+            Collections.emptyList()
+        );
+        instances.start(config, dist, target, true, null);
+        final Config other = instances.start(
+            config.withDatabase(
+                Instances.AUTO, InstancesTest.USER, InstancesTest.PASSWORD,
+                "other", Collections.emptyList()
+            ),
+            dist, target, true, null
+        );
+        MatcherAssert.assertThat(other.port(), Matchers.equalTo(port));
+        instances.stop(port);
+        new JdbcSession(
+            new UrlSource(
+                String.format(
+                    InstancesTest.CONNECTION_STRING,
+                    port,
+                    "other",
+                    InstancesTest.USER,
+                    InstancesTest.PASSWORD
+                )
+            )
+        ).sql("SELECT 1").execute();
+        instances.stop(port);
+        MatcherAssert.assertThat(
+            SocketHelper.isOpen(port, SocketHelper.TIMEOUT),
+            Matchers.is(false)
+        );
+    }
+
+    /**
+     * Instances can start from a template, which was stopped cleanly.
+     * @throws Exception If something is wrong
+     */
+    @Test
+    void startsFromCleanTemplate() throws Exception {
+        final File target = this.fromTemplate(
+            new Config(
+                this.reserve(),
+                InstancesTest.USER,
+                InstancesTest.PASSWORD,
+                InstancesTest.DBNAME,
+                Collections.emptyList()
+            )
+        );
+        MatcherAssert.assertThat(
+            FileUtils.readFileToString(
+                new File(target, "errors.log"), StandardCharsets.UTF_8
+            ),
+            Matchers.not(Matchers.containsString("crash recovery"))
+        );
+    }
+
+    /**
+     * Instances can start an ephemeral instance from a template.
+     * @throws Exception If something is wrong
+     */
+    @Test
+    void startsEphemeralFromTemplate() throws Exception {
+        final File ram = Files.createTempDirectory("").toFile();
+        this.fromTemplate(
+            new Config(
+                this.reserve(),
+                InstancesTest.USER,
+                InstancesTest.PASSWORD,
+                InstancesTest.DBNAME,
+                Collections.emptyList()
+            ).withEphemeral(ram).withSampling(100L).withSlowLog(0.0d)
+        );
+        MatcherAssert.assertThat(ram.list(), Matchers.emptyArray());
+    }
+
     /**
      * If no database exists, it will create one even if clear = false.
      * @throws Exception If something is wrong
@@ -322,7 +645,7 @@ final class InstancesTest {
         );
         MatcherAssert.assertThat(
             "Instance reusedExistingDatabase should be false.",
-            !instances.reusedExistingDatabase()
+            !instances.reusedExistingDatabase(port)
         );
         final DataSource source = new UrlSource(
             String.format(
@@ -374,7 +697,7 @@ final class InstancesTest {
         );
         MatcherAssert.assertThat(
             "Instance reusedExistingDatabase should be false.",
-            !instances.reusedExistingDatabase()
+            !instances.reusedExistingDatabase(port)
         );
         final DataSource source = new UrlSource(
             String.format(
@@ -431,7 +754,7 @@ final class InstancesTest {
         );
         MatcherAssert.assertThat(
             "Instance reusedExistingDatabase should be true.",
-            instances.reusedExistingDatabase()
+            instances.reusedExistingDatabase(port)
         );
         do {
             TimeUnit.SECONDS.sleep(InstancesTest.SLEEP_SECONDS);
@@ -457,6 +780,57 @@ final class InstancesTest {
         }
     }
 
+    /**
+     * Populate a data directory from a template, start an instance
+     * there and make sure the scripts were applied.
+     * @param config Instance configuration
+     * @return Directory of the instance
+     * @throws Exception If fails
+     */
+    private File fromTemplate(final Config config) throws Exception {
+        final File script = Files.createTempFile("", ".sql").toFile();
+        FileUtils.writeStringToFile(
+            script,
+            "CREATE TABLE foo (id INT);\nINSERT INTO foo VALUES (7);\n",
+            StandardCharsets.UTF_8
+        );
+        final Instances instances = new Instances();
+        final File dist = new File(InstancesTest.DIST);
+        final File target = Files.createTempDirectory("").toFile();
+        final Template template = new Template(
+            Files.createTempDirectory("").toFile(),
+            Collections.singletonList(script)
+        );
+        MatcherAssert.assertThat(
+            template.populate(instances, config, dist, target, true),
+            Matchers.is(true)
+        );
+        MatcherAssert.assertThat(
+            template.populate(instances, config, dist, target, false),
+            Matchers.is(false)
+        );
+        instances.start(config, dist, target, false, null);
+        try {
+            MatcherAssert.assertThat(
+                new JdbcSession(
+                    new UrlSource(
+                        String.format(
+                            InstancesTest.CONNECTION_STRING,
+                            config.port(),
+                            InstancesTest.DBNAME,
+                            InstancesTest.USER,
+                            InstancesTest.PASSWORD
+                        )
+                    )
+                ).sql("SELECT id FROM foo").select(new SingleOutcome<>(Long.class)),
+                Matchers.equalTo(7L)
+            );
+        } finally {
+            instances.stop(config.port());
+        }
+        return target;
+    }
+
     /**
      * Find and return the first available port.
      * @return The port number
@@ -0,0 +1,97 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2012-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.mysql.maven.plugin;
+
+import java.util.Collections;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test case for {@link Profile}.
+ * @since 1.0
+ */
+final class ProfileTest {
+
+    /**
+     * Eight gigabytes.
+     */
+    private static final long MEMORY = 8L * 1024L * 1024L * 1024L;
+
+    /**
+     * Profile can size options by memory and cores.
+     */
+    @Test
+    void sizesByMachine() {
+        MatcherAssert.assertThat(
+            Profile.PRODUCTION_LIKE.options(
+                ProfileTest.MEMORY, 8, Collections.emptyList()
+            ),
+            Matchers.allOf(
+                Matchers.hasItem("innodb_buffer_pool_size=2048M"),
+                Matchers.hasItem("innodb_log_file_size=512M"),
+                Matchers.hasItem("innodb_read_io_threads=8"),
+                Matchers.hasItem("table_open_cache=4000"),
+                Matchers.not(Matchers.hasItem("general_log"))
+            )
+        );
+        MatcherAssert.assertThat(
+            Profile.FAST_TEST.options(
+                ProfileTest.MEMORY, 8, Collections.emptyList()
+            ),
+            Matchers.allOf(
+                Matchers.hasItem("innodb_buffer_pool_size=512M"),
+                Matchers.hasItem("innodb_write_io_threads=4"),
+                Matchers.hasItem("innodb_use_native_aio=0")
+            )
+        );
+    }
+
+    /**
+     * Profile can turn on the general log only in debug.
+     */
+    @Test
+    void logsQueriesInDebug() {
+        MatcherAssert.assertThat(
+            Profile.named("debug").options(0L, 1, Collections.emptyList()),
+            Matchers.hasItems("general_log", "innodb_buffer_pool_size=64M")
+        );
+        MatcherAssert.assertThat(
+            Profile.named("fast-test").options(0L, 1, Collections.emptyList()),
+            Matchers.not(Matchers.hasItem("general_log"))
+        );
+    }
+
+    /**
+     * Profile can give way to options of the user.
+     */
+    @Test
+    void yieldsToUserOptions() {
+        MatcherAssert.assertThat(
+            Profile.FAST_TEST.options(
+                ProfileTest.MEMORY, 8,
+                Collections.singletonList("innodb-buffer-pool-size=3G")
+            ),
+            Matchers.not(
+                Matchers.hasItem(
+                    Matchers.startsWith("innodb_buffer_pool_size")
+                )
+            )
+        );
+    }
+
+    /**
+     * Profile can reject unknown name.
+     */
+    @Test
+    void rejectsUnknownName() {
+        Assertions.assertThrows(
+            IllegalArgumentException.class,
+            () -> Profile.named("turbo")
+        );
+    }
+
+}
@@ -0,0 +1,94 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2012-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.mysql.maven.plugin;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test case for {@link Pump}.
+ * @since 1.0
+ */
+final class PumpTest {
+
+    /**
+     * Pump can rank lines by their tags.
+     */
+    @Test
+    void ranksLines() {
+        MatcherAssert.assertThat(
+            Pump.rank("2024-01-01T00:00:00Z 0 [ERROR] [MY-010119] Aborting"),
+            Matchers.greaterThanOrEqualTo(Pump.threshold("error"))
+        );
+        MatcherAssert.assertThat(
+            Pump.rank("2024-01-01T00:00:00Z 0 [System] [MY-010931] ready"),
+            Matchers.greaterThanOrEqualTo(Pump.threshold("warning"))
+        );
+        MatcherAssert.assertThat(
+            Pump.rank("2024-01-01T00:00:00Z 0 [Note] [MY-010747] Plugin"),
+            Matchers.lessThan(Pump.threshold("warning"))
+        );
+    }
+
+    /**
+     * Pump can notify the listener about every line, even filtered out.
+     * @throws Exception If something is wrong
+     */
+    @Test
+    void notifiesAboutEveryLine() throws Exception {
+        final List<String> lines = new CopyOnWriteArrayList<>();
+        final CountDownLatch done = new CountDownLatch(2);
+        new Pump().attach(
+            new ByteArrayInputStream(
+                "first [Note]\nsecond [Warning]\n".getBytes(StandardCharsets.UTF_8)
+            ),
+            3306, "error",
+            line -> {
+                lines.add(line);
+                done.countDown();
+            }
+        );
+        MatcherAssert.assertThat(
+            done.await(1L, TimeUnit.MINUTES), Matchers.is(true)
+        );
+        MatcherAssert.assertThat(
+            lines, Matchers.contains("first [Note]", "second [Warning]")
+        );
+    }
+
+    /**
+     * Pump can drop the oldest lines when the buffer is full.
+     */
+    @Test
+    void dropsOldestLines() {
+        final Pump pump = new Pump(2, 1);
+        pump.offer("a");
+        pump.offer("b");
+        pump.offer("c");
+        MatcherAssert.assertThat(
+            pump.toString(), Matchers.containsString("dropped=1")
+        );
+    }
+
+    /**
+     * Pump can reject unknown verbosity.
+     */
+    @Test
+    void rejectsUnknownVerbosity() {
+        Assertions.assertThrows(
+            IllegalArgumentException.class,
+            () -> Pump.threshold("chatty")
+        );
+    }
+
+}
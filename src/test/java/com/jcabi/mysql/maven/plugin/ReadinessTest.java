@@ -0,0 +1,106 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2012-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.mysql.maven.plugin;
+
+import java.io.IOException;
+import java.net.BindException;
+import java.net.ServerSocket;
+import java.nio.file.Path;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mockito;
+
+/**
+ * Test case for {@link Readiness}.
+ * @since 1.0
+ */
+final class ReadinessTest {
+
+    /**
+     * Readiness can detect the "ready for connections" line.
+     * @param temp Temporary directory
+     * @throws Exception If something is wrong
+     */
+    @Test
+    void detectsReadyLine(@TempDir final Path temp) throws Exception {
+        final Process proc = Mockito.mock(Process.class);
+        Mockito.doReturn(true).when(proc).isAlive();
+        final Readiness readiness = new Readiness(1000L, 100L);
+        readiness.accept("[Server] X Plugin ready for connections. Bind-address");
+        readiness.accept(
+            "[Server] /opt/bin/mysqld: ready for connections. Version: '8.0.33'"
+        );
+        final long start = System.currentTimeMillis();
+        readiness.await(
+            proc, temp.resolve("mysql.sock").toFile(), ReadinessTest.closed()
+        );
+        MatcherAssert.assertThat(
+            System.currentTimeMillis() - start,
+            Matchers.lessThan(1000L)
+        );
+    }
+
+    /**
+     * Readiness can fail fast when the server dies.
+     * @param temp Temporary directory
+     * @throws Exception If something is wrong
+     */
+    @Test
+    void failsWhenServerDies(@TempDir final Path temp) throws Exception {
+        final Process proc = Mockito.mock(Process.class);
+        Mockito.doReturn(false).when(proc).isAlive();
+        Mockito.doReturn(1).when(proc).exitValue();
+        Assertions.assertThrows(
+            IOException.class,
+            () -> new Readiness().await(
+                proc, temp.resolve("mysql.sock").toFile(),
+                ReadinessTest.closed()
+            )
+        );
+    }
+
+    /**
+     * Readiness can fail fast when the port is taken, even if it answers.
+     * @param temp Temporary directory
+     * @throws Exception If something is wrong
+     */
+    @Test
+    void failsWhenPortIsTaken(@TempDir final Path temp) throws Exception {
+        final Process proc = Mockito.mock(Process.class);
+        Mockito.doReturn(true).when(proc).isAlive();
+        final Readiness readiness = new Readiness(1000L, 100L);
+        readiness.accept(
+            String.join(
+                " ",
+                "[ERROR] [MY-010262] [Server] Can't start server:",
+                "Bind on TCP/IP port: Address already in use"
+            )
+        );
+        try (ServerSocket taken = new ServerSocket(0)) {
+            Assertions.assertThrows(
+                BindException.class,
+                () -> readiness.await(
+                    proc, temp.resolve("mysql.sock").toFile(),
+                    taken.getLocalPort()
+                )
+            );
+        }
+    }
+
+    /**
+     * Find a port nobody listens on.
+     * @return The port number
+     * @throws IOException If fails
+     */
+    private static int closed() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+}
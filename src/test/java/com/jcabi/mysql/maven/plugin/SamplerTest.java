@@ -0,0 +1,114 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2012-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.mysql.maven.plugin;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+/**
+ * Test case for {@link Sampler}.
+ * @since 1.0
+ */
+final class SamplerTest {
+
+    /**
+     * Sampler can render deltas of counters as OpenMetrics text.
+     */
+    @Test
+    void rendersDeltasOfCounters() {
+        final List<Sampler.Sample> samples = Arrays.asList(
+            Sampler.parse(1_000L, "Questions\t100\nThreads_running\t1\n"),
+            Sampler.parse(2_500L, "Questions\t150\nThreads_running\t4\n"),
+            Sampler.parse(3_000L, "Questions\t20\nThreads_running\t2\n")
+        );
+        MatcherAssert.assertThat(
+            Sampler.metrics(3306, samples),
+            Matchers.allOf(
+                Matchers.containsString("# TYPE mysql_global_status_questions gauge\n"),
+                Matchers.containsString(
+                    "mysql_global_status_questions{port=\"3306\"} 50 2.500\n"
+                ),
+                Matchers.containsString(
+                    "mysql_global_status_questions{port=\"3306\"} 20 3.000\n"
+                ),
+                Matchers.containsString(
+                    "mysql_global_status_threads_running{port=\"3306\"} 4 2.500\n"
+                ),
+                Matchers.endsWith("# EOF\n")
+            )
+        );
+    }
+
+    /**
+     * Sampler can summarize samples.
+     */
+    @Test
+    void summarizesSamples() {
+        MatcherAssert.assertThat(
+            Sampler.summary(
+                Arrays.asList(
+                    Sampler.parse(0L, "Questions\t0\nThreads_running\t1\n"),
+                    Sampler.parse(2_000L, "Questions\t300\nThreads_running\t3\n")
+                )
+            ),
+            Matchers.allOf(
+                Matchers.matchesPattern(
+                    "(?s).*\nQuestions +300 +150\\.0 +300\n.*"
+                ),
+                Matchers.matchesPattern(
+                    "(?s).*\nThreads_running +1 +2\\.0 +3\n.*"
+                )
+            )
+        );
+    }
+
+    /**
+     * Sampler can parse the first sample of a session, skipping the
+     * warning the client prints about the password.
+     * @throws Exception If something is wrong
+     */
+    @Test
+    void skipsClientWarning() throws Exception {
+        final Process proc = Mockito.mock(Process.class);
+        Mockito.doReturn(new ByteArrayOutputStream()).when(proc).getOutputStream();
+        Mockito.doReturn(
+            new ByteArrayInputStream(
+                String.join(
+                    "\n",
+                    String.join(
+                        " ",
+                        "/opt/bin/mysql: [Warning] Using a password on",
+                        "the command line interface can be insecure."
+                    ),
+                    "Questions\t7",
+                    "Threads_running\t2",
+                    "jcabi-mysql-held",
+                    ""
+                ).getBytes(StandardCharsets.UTF_8)
+            )
+        ).when(proc).getInputStream();
+        final String output = new Client.Session(proc).query("SHOW STATUS;");
+        MatcherAssert.assertThat(
+            output, Matchers.not(Matchers.containsString("Warning"))
+        );
+        MatcherAssert.assertThat(
+            Sampler.metrics(
+                3306,
+                Arrays.asList(Sampler.parse(1_000L, output))
+            ),
+            Matchers.containsString(
+                "mysql_global_status_threads_running{port=\"3306\"} 2 1.000\n"
+            )
+        );
+    }
+
+}
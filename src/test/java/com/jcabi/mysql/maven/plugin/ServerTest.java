@@ -0,0 +1,54 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2012-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.mysql.maven.plugin;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Collections;
+import org.apache.commons.io.FileUtils;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test case for {@link Server}.
+ * @since 1.0
+ */
+final class ServerTest {
+
+    /**
+     * Server can stop through mysqladmin and wait for the exit.
+     * @param temp Temporary directory
+     * @throws Exception If something is wrong
+     */
+    @Test
+    void stopsThroughAdmin(@TempDir final Path temp) throws Exception {
+        final File flag = temp.resolve("stop").toFile();
+        final File admin = temp.resolve("bin/mysqladmin").toFile();
+        FileUtils.writeStringToFile(
+            admin,
+            String.format("#!/bin/sh\ntouch %s\n", flag),
+            StandardCharsets.UTF_8
+        );
+        final Process proc = new ProcessBuilder(
+            "/bin/sh", "-c",
+            String.format("while [ ! -f %s ]; do sleep 0.1; done", flag)
+        ).start();
+        new Server(
+            proc,
+            new Config(3306, "root", "root", "root", Collections.emptyList()),
+            temp.toFile(),
+            temp.resolve("mysql.sock").toFile(),
+            temp.resolve("data").toFile(),
+            temp.toFile(),
+            false
+        ).shutdown(1000L);
+        MatcherAssert.assertThat(proc.isAlive(), Matchers.is(false));
+        MatcherAssert.assertThat(proc.exitValue(), Matchers.equalTo(0));
+    }
+
+}
@@ -0,0 +1,97 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2012-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.mysql.maven.plugin;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Map;
+import org.apache.commons.io.FileUtils;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test case for {@link SlowLog}.
+ * @since 1.0
+ */
+final class SlowLogTest {
+
+    /**
+     * SlowLog can normalize statements into fingerprints.
+     */
+    @Test
+    void makesFingerprints() {
+        MatcherAssert.assertThat(
+            SlowLog.fingerprint(
+                "SELECT /* hint */ name FROM t1\n WHERE id IN (1, 2, 3) AND x = 'it''s #1';"
+            ),
+            Matchers.equalTo("select name from t1 where id in (?+) and x = ?")
+        );
+        MatcherAssert.assertThat(
+            SlowLog.fingerprint("INSERT INTO `t2` VALUES (1, \"a\"), (2.5, 0x1F)"),
+            Matchers.equalTo("insert into `t2` values (?+)")
+        );
+    }
+
+    /**
+     * SlowLog can aggregate statements of a log.
+     * @param temp Temporary directory
+     * @throws Exception If something is wrong
+     */
+    @Test
+    void aggregatesStatements(@TempDir final Path temp) throws Exception {
+        final File log = temp.resolve("mysql-slow.log").toFile();
+        FileUtils.writeStringToFile(
+            log,
+            String.join(
+                "\n",
+                "/usr/sbin/mysqld, Version: 8.0.33 (MySQL). started with:",
+                "Tcp port: 3306  Unix socket: /tmp/mysql.sock",
+                "Time                 Id Command    Argument",
+                "# Time: 2026-01-01T10:00:00.000000Z",
+                "# User@Host: root[root] @ localhost []  Id:     8",
+                "# Query_time: 0.500000  Lock_time: 0.100000 Rows_sent: 1  Rows_examined: 40",
+                "use test;",
+                "SET timestamp=1767261600;",
+                "SELECT * FROM users",
+                "  WHERE id = 1;",
+                "# Time: 2026-01-01T10:00:01.000000Z",
+                "# User@Host: root[root] @ localhost []  Id:     8",
+                "# Query_time: 1.500000  Lock_time: 0.000000 Rows_sent: 1  Rows_examined: 60",
+                "SET timestamp=1767261601;",
+                "SELECT * FROM users WHERE id = 42;",
+                "# Time: 2026-01-01T10:00:02.000000Z",
+                "# User@Host: root[root] @ localhost []  Id:     8",
+                "# Query_time: 0.250000  Lock_time: 0.000000 Rows_sent: 0  Rows_examined: 0",
+                "SET timestamp=1767261602;",
+                "DELETE FROM orders;",
+                ""
+            ),
+            StandardCharsets.UTF_8
+        );
+        final Map<String, SlowLog.Digest> digests = new SlowLog(log).digests();
+        MatcherAssert.assertThat(digests.size(), Matchers.equalTo(2));
+        final SlowLog.Digest select = digests.get(
+            "select * from users where id = ?"
+        );
+        MatcherAssert.assertThat(select.count(), Matchers.equalTo(2L));
+        MatcherAssert.assertThat(select.time(), Matchers.closeTo(2.0d, 1.0e-6));
+        MatcherAssert.assertThat(select.sent(), Matchers.equalTo(2L));
+        final File report = temp.resolve("mysql-slow.txt").toFile();
+        new SlowLog(log).report(report, 1);
+        MatcherAssert.assertThat(
+            FileUtils.readFileToString(report, StandardCharsets.UTF_8),
+            Matchers.allOf(
+                Matchers.startsWith("3 statement(s) of 2 fingerprint(s)"),
+                Matchers.containsString("Top 1 by total time:"),
+                Matchers.containsString("select * from users where id = ?"),
+                Matchers.containsString("Top 1 by lock time:")
+            )
+        );
+    }
+
+}
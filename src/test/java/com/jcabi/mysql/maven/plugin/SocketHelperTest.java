@@ -0,0 +1,100 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2012-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.mysql.maven.plugin;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test case for {@link SocketHelper}.
+ * @since 1.0
+ */
+final class SocketHelperTest {
+
+    /**
+     * SocketHelper can recognize MySQL handshake.
+     * @throws Exception If something is wrong
+     */
+    @Test
+    void recognizesHandshake() throws Exception {
+        final byte[] version = "8.0.33\0".getBytes(StandardCharsets.US_ASCII);
+        final byte[] packet = new byte[version.length + 5];
+        packet[0] = (byte) (version.length + 1);
+        packet[4] = 10;
+        System.arraycopy(version, 0, packet, 5, version.length);
+        try (ServerSocket server = new ServerSocket(0)) {
+            final Thread thread = SocketHelperTest.serve(server, packet);
+            MatcherAssert.assertThat(
+                SocketHelper.isOpen(server.getLocalPort(), 1000L),
+                Matchers.is(true)
+            );
+            thread.join();
+        }
+    }
+
+    /**
+     * SocketHelper can reject a listener that is not MySQL.
+     * @throws Exception If something is wrong
+     */
+    @Test
+    void rejectsForeignListener() throws Exception {
+        try (ServerSocket server = new ServerSocket(0)) {
+            final Thread thread = SocketHelperTest.serve(
+                server,
+                "HTTP/1.1 400 Bad Request\r\n\r\n".getBytes(StandardCharsets.US_ASCII)
+            );
+            MatcherAssert.assertThat(
+                SocketHelper.isOpen(server.getLocalPort(), 1000L),
+                Matchers.is(false)
+            );
+            thread.join();
+        }
+    }
+
+    /**
+     * SocketHelper can report closed port.
+     * @throws Exception If something is wrong
+     */
+    @Test
+    void reportsClosedPort() throws Exception {
+        final int port;
+        try (ServerSocket server = new ServerSocket(0)) {
+            port = server.getLocalPort();
+        }
+        MatcherAssert.assertThat(
+            SocketHelper.isOpen(port, 100L),
+            Matchers.is(false)
+        );
+    }
+
+    /**
+     * Accept one connection, send bytes and close it.
+     * @param server Server socket
+     * @param bytes What to send
+     * @return Thread that serves
+     */
+    private static Thread serve(final ServerSocket server, final byte[] bytes) {
+        final Thread thread = new Thread(
+            () -> {
+                try (Socket socket = server.accept()) {
+                    final OutputStream out = socket.getOutputStream();
+                    out.write(bytes);
+                    out.flush();
+                } catch (final IOException ex) {
+                    throw new IllegalStateException(ex);
+                }
+            }
+        );
+        thread.start();
+        return thread;
+    }
+
+}
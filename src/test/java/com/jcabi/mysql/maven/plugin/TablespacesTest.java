@@ -0,0 +1,41 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2012-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.mysql.maven.plugin;
+
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test case for {@link Tablespaces}.
+ * @since 1.0
+ */
+final class TablespacesTest {
+
+    /**
+     * Tablespaces can unescape DDL printed by the client.
+     */
+    @Test
+    void unescapesBatchOutput() {
+        MatcherAssert.assertThat(
+            Tablespaces.unescape(
+                "CREATE TABLE `t` (\\n  `id` int DEFAULT '\\\\'\\n)"
+            ),
+            Matchers.equalTo("CREATE TABLE `t` (\n  `id` int DEFAULT '\\'\n)")
+        );
+    }
+
+    /**
+     * Tablespaces can encode names the way MySQL names files.
+     */
+    @Test
+    void encodesFileNames() {
+        MatcherAssert.assertThat(
+            Tablespaces.filename("order-items$2_x"),
+            Matchers.equalTo("order@002ditems@00242_x")
+        );
+    }
+
+}
@@ -0,0 +1,134 @@
+/*
+ * SPDX-FileCopyrightText: Copyright (c) 2012-2026 Yegor Bugayenko
+ * SPDX-License-Identifier: MIT
+ */
+package com.jcabi.mysql.maven.plugin;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+import org.apache.commons.io.FileUtils;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test case for {@link Timeline}.
+ * @since 1.0
+ */
+final class TimelineTest {
+
+    /**
+     * Timeline can find boot milestones of mysqld in its log.
+     * @param temp Temporary directory
+     * @throws Exception If something is wrong
+     */
+    @Test
+    void findsMilestonesInLog(@TempDir final Path temp) throws Exception {
+        final Timeline timeline = new Timeline();
+        final Instant now = Instant.now().plusSeconds(1L);
+        final File log = temp.resolve("errors.log").toFile();
+        FileUtils.writeLines(
+            log,
+            StandardCharsets.UTF_8.name(),
+            Arrays.asList(
+                String.format(
+                    "%s 0 [System] [MY-010116] [Server] mysqld starting as process 1",
+                    now.minusSeconds(3600L)
+                ),
+                String.format(
+                    "%s 0 [System] [MY-010116] [Server] mysqld starting as process 7",
+                    now
+                ),
+                String.format(
+                    String.join(
+                        " ",
+                        "%s 1 [System] [MY-013576] [InnoDB]",
+                        "InnoDB initialization has started."
+                    ),
+                    now.plusMillis(100L)
+                ),
+                String.format(
+                    "%s 1 [System] [MY-013577] [InnoDB] InnoDB initialization has ended.",
+                    now.plusMillis(400L)
+                )
+            )
+        );
+        timeline.read(log);
+        timeline.accept(
+            String.format(
+                "%s 0 [System] [MY-010931] [Server] mysqld: ready for connections.",
+                now.plusMillis(900L)
+            )
+        );
+        timeline.accept(
+            String.format(
+                String.join(
+                    " ",
+                    "%s 0 [System] [MY-011323] [Server] X Plugin",
+                    "ready for connections. Bind-address: '::' port: 33060"
+                ),
+                now.plusMillis(950L)
+            )
+        );
+        MatcherAssert.assertThat(
+            timeline.durations(),
+            Matchers.allOf(
+                Matchers.hasEntry("mysqld.innodb", 300L),
+                Matchers.hasEntry("mysqld.boot", 900L)
+            )
+        );
+    }
+
+    /**
+     * Timeline can ignore a line with a broken timestamp.
+     */
+    @Test
+    void ignoresBrokenTimestamp() {
+        final Timeline timeline = new Timeline();
+        timeline.accept(
+            String.join(
+                " ",
+                "2024-13-45T99:99:99Z 0 [System] [MY-010116] [Server]",
+                "mysqld starting as process 7"
+            )
+        );
+        MatcherAssert.assertThat(
+            timeline.durations().entrySet(), Matchers.empty()
+        );
+    }
+
+    /**
+     * Timeline can measure phases and save them as a trace.
+     * @param temp Temporary directory
+     * @throws Exception If something is wrong
+     */
+    @Test
+    void savesMeasuredPhases(@TempDir final Path temp) throws Exception {
+        final Timeline timeline = new Timeline();
+        MatcherAssert.assertThat(
+            timeline.measure("spawn", () -> "done"),
+            Matchers.equalTo("done")
+        );
+        timeline.record("readiness", System.currentTimeMillis());
+        MatcherAssert.assertThat(
+            timeline.durations().keySet(),
+            Matchers.contains("spawn", "readiness")
+        );
+        final File trace = temp.resolve("trace.json").toFile();
+        Timeline.save(trace, Collections.singletonMap(3306, timeline));
+        MatcherAssert.assertThat(
+            FileUtils.readFileToString(trace, StandardCharsets.UTF_8),
+            Matchers.allOf(
+                Matchers.containsString("\"traceEvents\""),
+                Matchers.containsString("\"name\":\"spawn\""),
+                Matchers.containsString("\"pid\":3306")
+            )
+        );
+    }
+
+}